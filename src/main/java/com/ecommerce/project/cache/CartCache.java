@@ -0,0 +1,326 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartSummaryDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.repository.CartItemRepository;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.IndexedProduct;
+import com.ecommerce.project.service.ProductChangeListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// CartDTO snapshots keyed by user id. Cart mutations write their result through once they commit; a write only
+// lands if no other write for the same user committed since the mutation started, otherwise the entry is
+// dropped, so two racing mutations can never leave the older cart behind. A product change only drops the carts
+// that hold it, and only loads and writes whose cart holds a product changed since they started are refused
+@Component
+public class CartCache implements ProductChangeListener {
+  private static final int STRIPES = 1024;
+  private static final int PRODUCT_CHANGES_RETAINED = 4096;
+
+  private final CartRepository cartRepository;
+  private final CartItemRepository cartItemRepository;
+  private final ProductRepository productRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int maxSize;
+  private final long ttlMillis;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // bumped on every write to a stripe of users so loads and write-throughs that raced with it never insert stale carts
+  private final long[] generations = new long[STRIPES];
+
+  // bumped on every product change; productChanges remembers the generation of the latest change per product,
+  // and once it drops an old change anything that started at or before productChangesFloor is refused outright
+  private long catalogGeneration;
+  private long productChangesFloor;
+  private final LinkedHashMap<Long, Long> productChanges = new LinkedHashMap<>(16, 0.75f, false) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+      if(size() > PRODUCT_CHANGES_RETAINED){
+        productChangesFloor = eldest.getValue();
+        return true;
+      }
+      return false;
+    }
+  };
+
+  private final LinkedHashMap<Long, CachedCart> entries;
+
+  // product id to the users whose cached cart holds it, so a product change drops only the carts it appears in
+  private final Map<Long, Set<Long>> usersByProduct = new HashMap<>();
+
+  public CartCache(CartRepository cartRepository,
+                   CartItemRepository cartItemRepository,
+                   ProductRepository productRepository,
+                   PlatformTransactionManager transactionManager,
+                   MeterRegistry meterRegistry,
+                   @Value("${project.cache.cart.max-size}") int maxSize,
+                   @Value("${project.cache.cart.ttl-ms}") long ttlMillis) {
+    this.cartRepository = cartRepository;
+    this.cartItemRepository = cartItemRepository;
+    this.productRepository = productRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, CachedCart> eldest) {
+        if(size() > CartCache.this.maxSize){
+          unindex(eldest.getKey(), eldest.getValue().cart);
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+      .tag("cache", "carts").tag("result", "hit").register(meterRegistry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+      .tag("cache", "carts").tag("result", "miss").register(meterRegistry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+      .tag("cache", "carts").register(meterRegistry);
+    Gauge.builder("cache.size", this, CartCache::size)
+      .tag("cache", "carts").register(meterRegistry);
+  }
+
+  public Optional<CartDTO> findByUserId(Long userId) {
+    Generation loadGeneration;
+    synchronized (this) {
+      CachedCart cached = entries.get(userId);
+      if(cached != null && cached.expiresAt > System.currentTimeMillis()){
+        hits.increment();
+        return Optional.of(copyOf(cached.cart));
+      }
+      if(cached != null){
+        remove(userId);
+        evictions.increment();
+      }
+      misses.increment();
+      loadGeneration = generation(userId);
+    }
+
+    Optional<CartDTO> loaded = load(userId);
+
+    loaded.ifPresent(cart -> {
+      synchronized (this) {
+        if(current(userId, loadGeneration, cart) && !entries.containsKey(userId)){
+          store(userId, copyOf(cart));
+        }
+      }
+    });
+
+    return loaded;
+  }
+
+  // the header badge only needs the counts, so a hit hands out the stored summary without copying the products
+  public Optional<CartSummaryDTO> findSummaryByUserId(Long userId) {
+    synchronized (this) {
+      CachedCart cached = entries.get(userId);
+      if(cached != null && cached.expiresAt > System.currentTimeMillis()){
+        hits.increment();
+        return Optional.of(copyOf(cached.summary));
+      }
+    }
+    return findByUserId(userId).map(CartCache::summarize);
+  }
+
+  // reads the user's cart straight from the database with projections, without touching the cache. The reads share
+  // one transaction, joining the caller's if there is one, and a line whose product was deleted meanwhile is skipped
+  public Optional<CartDTO> load(Long userId) {
+    return readOnlyTransaction.execute(status -> loadCart(userId));
+  }
+
+  private Optional<CartDTO> loadCart(Long userId) {
+    List<Object[]> carts = cartRepository.findCartIdAndTotalPriceByUserId(userId);
+    if(carts.isEmpty()){
+      return Optional.empty();
+    }
+
+    Long cartId = (Long) carts.get(0)[0];
+    Double totalPrice = (Double) carts.get(0)[1];
+    List<Object[]> lines = cartItemRepository.findProductQuantitiesByCartId(cartId);
+    if(lines.isEmpty()){
+      return Optional.of(new CartDTO(cartId, totalPrice, new ArrayList<>()));
+    }
+
+    Map<Long, ProductDTO> products = productRepository.findProductDTOsByProductIdIn(
+        lines.stream().map(line -> (Long) line[0]).toList()).stream()
+      .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+
+    List<ProductDTO> cartProducts = new ArrayList<>(lines.size());
+    for (Object[] line : lines) {
+      ProductDTO productDTO = products.get((Long) line[0]);
+      if(productDTO == null){
+        continue;
+      }
+      productDTO.setQuantity((Integer) line[1]);
+      cartProducts.add(productDTO);
+    }
+    return Optional.of(new CartDTO(cartId, totalPrice, cartProducts));
+  }
+
+  // read before a mutation starts and handed back to putAfterCommit with its result
+  public synchronized Generation generation(Long userId) {
+    return new Generation(generations[stripe(userId)], catalogGeneration);
+  }
+
+  public void putAfterCommit(Long userId, Generation generation, CartDTO cart) {
+    CartDTO snapshot = copyOf(cart);
+    afterCommit(() -> put(userId, generation, snapshot));
+  }
+
+  public void evictAfterCommit(Collection<Long> userIds) {
+    afterCommit(() -> userIds.forEach(this::evict));
+  }
+
+  public synchronized void evict(Long userId) {
+    generations[stripe(userId)]++;
+    remove(userId);
+  }
+
+  public synchronized void evictProduct(Long productId) {
+    catalogGeneration++;
+    productChanges.remove(productId);
+    productChanges.put(productId, catalogGeneration);
+
+    Set<Long> userIds = usersByProduct.get(productId);
+    if(userIds != null){
+      new ArrayList<>(userIds).forEach(this::remove);
+    }
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    evictProduct(product.getProductId());
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    evictProduct(productId);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private synchronized void put(Long userId, Generation generation, CartDTO cart) {
+    int stripe = stripe(userId);
+    if(current(userId, generation, cart)){
+      remove(userId);
+      store(userId, cart);
+    }
+    else {
+      remove(userId);
+    }
+    generations[stripe]++;
+  }
+
+  private boolean current(Long userId, Generation generation, CartDTO cart) {
+    if(generations[stripe(userId)] != generation.user()){
+      return false;
+    }
+    if(catalogGeneration == generation.catalog()){
+      return true;
+    }
+    if(generation.catalog() < productChangesFloor){
+      return false;
+    }
+    for (ProductDTO product : cart.getProducts()) {
+      Long changed = productChanges.get(product.getProductId());
+      if(changed != null && changed > generation.catalog()){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void store(Long userId, CartDTO cart) {
+    entries.put(userId, new CachedCart(cart, summarize(cart), System.currentTimeMillis() + ttlMillis));
+    cart.getProducts().forEach(product ->
+      usersByProduct.computeIfAbsent(product.getProductId(), productId -> new HashSet<>()).add(userId));
+  }
+
+  private void remove(Long userId) {
+    CachedCart cached = entries.remove(userId);
+    if(cached != null){
+      unindex(userId, cached.cart);
+    }
+  }
+
+  private void unindex(Long userId, CartDTO cart) {
+    cart.getProducts().forEach(product -> {
+      Set<Long> userIds = usersByProduct.get(product.getProductId());
+      if(userIds != null && userIds.remove(userId) && userIds.isEmpty()){
+        usersByProduct.remove(product.getProductId());
+      }
+    });
+  }
+
+  private static void afterCommit(Runnable action) {
+    if(TransactionSynchronizationManager.isSynchronizationActive()){
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          action.run();
+        }
+      });
+    }
+    else {
+      action.run();
+    }
+  }
+
+  private static int stripe(Long userId) {
+    return Long.hashCode(userId) & (STRIPES - 1);
+  }
+
+  private static CartDTO copyOf(CartDTO cart) {
+    List<ProductDTO> products = new ArrayList<>(cart.getProducts().size());
+    cart.getProducts().forEach(product -> products.add(new ProductDTO(product.getProductId(), product.getProductName(),
+      product.getImage(), product.getDescription(), product.getQuantity(), product.getPrice(), product.getDiscount(),
+      product.getSpacialPrice())));
+    return new CartDTO(cart.getCartId(), cart.getTotalPrice(), products);
+  }
+
+  private static CartSummaryDTO summarize(CartDTO cart) {
+    int totalQuantity = 0;
+    long version = cart.getCartId();
+    for (ProductDTO product : cart.getProducts()) {
+      totalQuantity += product.getQuantity();
+      version = 31 * version + product.getProductId();
+      version = 31 * version + product.getQuantity();
+    }
+    version = 31 * version + Double.hashCode(cart.getTotalPrice());
+    return new CartSummaryDTO(cart.getCartId(), cart.getProducts().size(), totalQuantity, cart.getTotalPrice(), version);
+  }
+
+  private static CartSummaryDTO copyOf(CartSummaryDTO summary) {
+    return new CartSummaryDTO(summary.getCartId(), summary.getItemCount(), summary.getTotalQuantity(),
+      summary.getTotalPrice(), summary.getVersion());
+  }
+
+  public record Generation(long user, long catalog) {
+  }
+
+  private record CachedCart(CartDTO cart, CartSummaryDTO summary, long expiresAt) {
+  }
+}
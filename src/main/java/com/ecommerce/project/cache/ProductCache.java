@@ -0,0 +1,129 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.IndexedProduct;
+import com.ecommerce.project.service.ProductChangeListener;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ProductCache implements ProductChangeListener {
+  private final ProductRepository productRepository;
+  private final int maxSize;
+  private final long ttlMillis;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  // bumped on every invalidation so a load racing with a write never re-inserts the stale row
+  private long generation;
+
+  private final LinkedHashMap<Long, CachedProduct> entries;
+
+  public ProductCache(ProductRepository productRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${project.cache.product.max-size}") int maxSize,
+                      @Value("${project.cache.product.ttl-ms}") long ttlMillis) {
+    this.productRepository = productRepository;
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, CachedProduct> eldest) {
+        if(size() > ProductCache.this.maxSize){
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+      .tag("cache", "products").tag("result", "hit").register(meterRegistry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+      .tag("cache", "products").tag("result", "miss").register(meterRegistry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+      .tag("cache", "products").register(meterRegistry);
+    Gauge.builder("cache.size", this, ProductCache::size)
+      .tag("cache", "products").register(meterRegistry);
+  }
+
+  public Optional<Product> findById(Long productId) {
+    long loadGeneration;
+    synchronized (this) {
+      CachedProduct cached = entries.get(productId);
+      if(cached != null && cached.expiresAt > System.currentTimeMillis()){
+        hits.increment();
+        return Optional.of(copyOf(cached.product));
+      }
+      if(cached != null){
+        entries.remove(productId);
+        evictions.increment();
+      }
+      misses.increment();
+      loadGeneration = generation;
+    }
+
+    Optional<Product> loaded = productRepository.findById(productId);
+
+    loaded.ifPresent(product -> {
+      synchronized (this) {
+        if(generation == loadGeneration){
+          entries.put(productId, new CachedProduct(copyOf(product), System.currentTimeMillis() + ttlMillis));
+        }
+      }
+    });
+
+    return loaded.map(ProductCache::copyOf);
+  }
+
+  public synchronized void adjustQuantity(Long productId, int delta) {
+    CachedProduct cached = entries.get(productId);
+    if(cached != null && cached.product.getQuantity() != null){
+      cached.product.setQuantity(cached.product.getQuantity() + delta);
+    }
+  }
+
+  public synchronized void evict(Long productId) {
+    generation++;
+    entries.remove(productId);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    evict(product.getProductId());
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    evict(productId);
+  }
+
+  @Override
+  public void productQuantityAdjusted(Long productId, int delta) {
+    adjustQuantity(productId, delta);
+  }
+
+  private static Product copyOf(Product product) {
+    return new Product(product.getProductId(), product.getProductName(), product.getImage(), product.getDescription(),
+      product.getQuantity(), product.getPrice(), product.getDiscount(), product.getSpacialPrice(),
+      product.getCategory(), product.getUsers(), null);
+  }
+
+  private record CachedProduct(Product product, long expiresAt) {
+  }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.project.cache;
+
+import com.ecommerce.project.model.Users;
+import com.ecommerce.project.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class UserCache {
+  private final UserRepository userRepository;
+  private final int maxSize;
+  private final long ttlMillis;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private final LinkedHashMap<Long, CachedUser> entries;
+
+  public UserCache(UserRepository userRepository,
+                   MeterRegistry meterRegistry,
+                   @Value("${project.cache.user.max-size}") int maxSize,
+                   @Value("${project.cache.user.ttl-ms}") long ttlMillis) {
+    this.userRepository = userRepository;
+    this.maxSize = maxSize;
+    this.ttlMillis = ttlMillis;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, CachedUser> eldest) {
+        if(size() > UserCache.this.maxSize){
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+      .tag("cache", "users").tag("result", "hit").register(meterRegistry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+      .tag("cache", "users").tag("result", "miss").register(meterRegistry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+      .tag("cache", "users").register(meterRegistry);
+    Gauge.builder("cache.size", this, UserCache::size)
+      .tag("cache", "users").register(meterRegistry);
+  }
+
+  // returns a detached copy without the lazy collections, good for use as a reference but not for saving; the
+  // cached fields only change when roles are reassigned, so an entry is at most ttl-ms stale
+  public Optional<Users> findById(Long userId) {
+    synchronized (this) {
+      CachedUser cached = entries.get(userId);
+      if(cached != null && cached.expiresAt > System.currentTimeMillis()){
+        hits.increment();
+        return Optional.of(copyOf(cached.user));
+      }
+      if(cached != null){
+        entries.remove(userId);
+        evictions.increment();
+      }
+      misses.increment();
+    }
+
+    Optional<Users> loaded = userRepository.findById(userId);
+
+    loaded.ifPresent(user -> {
+      synchronized (this) {
+        entries.put(userId, new CachedUser(copyOf(user), System.currentTimeMillis() + ttlMillis));
+      }
+    });
+
+    return loaded.map(UserCache::copyOf);
+  }
+
+  // called after a user's roles are reassigned
+  public synchronized void evict(Long userId) {
+    entries.remove(userId);
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private static Users copyOf(Users user) {
+    Users copy = new Users(user.getUserName(), user.getEmail(), user.getPassword());
+    copy.setId(user.getId());
+    copy.setEnabled(user.isEnabled());
+    copy.setRolesInUsers(new HashSet<>(user.getRolesInUsers()));
+    return copy;
+  }
+
+  private record CachedUser(Users user, long expiresAt) {
+  }
+}
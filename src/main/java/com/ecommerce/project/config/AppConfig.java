@@ -1,13 +1,13 @@
 package com.ecommerce.project.config;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@EnableAsync
+@EnableScheduling
 public class AppConfig {
-  @Bean
-  public ModelMapper modelMapper(){
-    return new ModelMapper();
-  }
 }
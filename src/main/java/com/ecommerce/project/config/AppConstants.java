@@ -6,4 +6,8 @@ public class AppConstants {
   public static final String SORT_CATEGORY_BY="categoryId";
   public static final String SORT_PRODUCTS_BY="categoryId";
   public static final String SORT_ORDER="asc";
+  public static final String SCROLL_PRODUCTS_BY="productId";
+  public static final String IMPORT_FORMAT="ndjson";
+  public static final String EXPORT_FORMAT="ndjson";
+  public static final String SUGGEST_LIMIT="10";
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.ecommerce.project.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@ConfigurationProperties(prefix = "project.rate-limit")
+public class RateLimitProperties {
+  private boolean enabled = true;
+  private int maxClientsPerRoute = 100000;
+  private long idleTimeoutMs = 600000;
+  // keyed by route name, which is also the metric tag; a map lets one route be overridden without restating the rest
+  private Map<String, Route> routes = new LinkedHashMap<>();
+
+  @Data
+  @NoArgsConstructor
+  public static class Route {
+    private String pattern;
+    private String method;
+    private int capacity;
+    private double refillPerMinute;
+  }
+}
@@ -5,7 +5,6 @@ import com.ecommerce.project.payload.AddressDTO;
 import com.ecommerce.project.service.AddressService;
 import com.ecommerce.project.utils.AuthUtil;
 import jakarta.validation.Valid;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +21,6 @@ public class AddressController {
 
   @Autowired
   private AuthUtil authUtil;
-  @Autowired
-  private ModelMapper modelMapper;
 
 
   @PostMapping("/addresses")
@@ -10,23 +10,26 @@ import com.ecommerce.project.request.SignupRequest;
 import com.ecommerce.project.response.MessageResponse;
 import com.ecommerce.project.response.UserInfoResponse;
 import com.ecommerce.project.security.jwt.JwtUtils;
+import com.ecommerce.project.security.jwt.TokenRevocationList;
 import com.ecommerce.project.security.services.UserDetailsImplementation;
+import com.ecommerce.project.service.PasswordHashingService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -36,63 +39,73 @@ public class AuthController {
   private JwtUtils jwtUtils;
 
   @Autowired
-  private AuthenticationManager authenticationManager;
+  private TokenRevocationList tokenRevocationList;
 
   @Autowired
-  private UserRepository userRepository;
+  private PasswordHashingService passwordHashingService;
 
   @Autowired
-  private PasswordEncoder passwordEncoder;
+  private UserRepository userRepository;
 
   @Autowired
   private RoleRepository roleRepository;
 
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
   @PostMapping("/signin")
-  public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest){
-    Authentication authentication;
-    try {
-      authentication = authenticationManager
-        .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-    } catch (AuthenticationException exception){
-      Map<String, Object> map = new HashMap<>();
-      map.put("message", "Bad Credentials");
-      map.put("status", false);
-      return new ResponseEntity<Object>(map, HttpStatus.NOT_FOUND);
-    }
+  public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest){
+    return passwordHashingService.authenticate(loginRequest.getUsername(), loginRequest.getPassword())
+      .handle((authentication, failure) -> {
+        if(failure != null){
+          Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+          if(cause instanceof AuthenticationException){
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "Bad Credentials");
+            map.put("status", false);
+            return new ResponseEntity<Object>(map, HttpStatus.NOT_FOUND);
+          }
+          throw new CompletionException(cause);
+        }
 
-    SecurityContextHolder.getContext().setAuthentication(authentication);
+        UserDetailsImplementation userDetails = (UserDetailsImplementation) authentication.getPrincipal();
 
-    UserDetailsImplementation userDetails = (UserDetailsImplementation) authentication.getPrincipal();
+        ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails);
 
-    ResponseCookie jwtCookie = jwtUtils.generateJwtCookie(userDetails);
+        List<String> roles = userDetails.getAuthorities().stream()
+          .map(GrantedAuthority::getAuthority)
+          .collect(Collectors.toList());
 
-    List<String> roles = userDetails.getAuthorities().stream()
-      .map(GrantedAuthority::getAuthority)
-      .collect(Collectors.toList());
+        UserInfoResponse loginResponse = new UserInfoResponse(userDetails.getId(), userDetails.getUsername(), roles);
 
-    UserInfoResponse loginResponse = new UserInfoResponse(userDetails.getId(), userDetails.getUsername(), roles);
-
-    return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString()).body(loginResponse);
+        return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, jwtCookie.toString()).body(loginResponse);
+      });
   }
 
   @PostMapping("/signup")
 
-  public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signupRequest){
+  public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signupRequest){
     if(userRepository.existsByUserName(signupRequest.getUsername())){
-      return ResponseEntity.badRequest().body("Username is already in use");
+      return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Username is already in use"));
     }
 
     if(userRepository.existsByEmail(signupRequest.getEmail())){
-      return ResponseEntity.badRequest().body("Email is already in use");
+      return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Email is already in use"));
     }
 
-    Users users = new Users(signupRequest.getUsername(), signupRequest.getEmail(),
-      passwordEncoder.encode(signupRequest.getPassword()));
-
-
-    Set<String> stringRole = signupRequest.getRole();
+    // the hash completes on the password pool, outside the request's persistence context, so the roles are
+    // loaded and the user saved in one transaction there
+    return passwordHashingService.encode(signupRequest.getPassword()).thenApply(encodedPassword ->
+      transactionTemplate.execute(status -> {
+        Users users = new Users(signupRequest.getUsername(), signupRequest.getEmail(), encodedPassword);
+        users.setRolesInUsers(resolveRoles(signupRequest.getRole()));
+        userRepository.save(users);
 
+        return ResponseEntity.ok(new MessageResponse("User Registered Successfully!"));
+      }));
+  }
 
+  private Set<Roles> resolveRoles(Set<String> stringRole){
     Set<Roles> roles = new HashSet<>();
 
     if(stringRole == null){
@@ -124,10 +137,7 @@ public class AuthController {
       });
     }
 
-    users.setRolesInUsers(roles);
-    userRepository.save(users);
-
-    return ResponseEntity.ok(new MessageResponse("User Registered Successfully!"));
+    return roles;
   }
 
   @GetMapping("/username")
@@ -153,7 +163,13 @@ public class AuthController {
   }
 
   @PostMapping("/signout")
-  public ResponseEntity<?> signOutUser(){
+  public ResponseEntity<?> signOutUser(HttpServletRequest request){
+    String jwtToken = jwtUtils.getJwtFromCookies(request);
+    Claims claims = jwtToken != null ? jwtUtils.getVerifiedClaims(jwtToken) : null;
+    if(claims != null && claims.getId() != null){
+      tokenRevocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+
     ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
 
     return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString()).body(new MessageResponse("You've been signed Out") );
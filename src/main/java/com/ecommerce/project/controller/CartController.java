@@ -1,16 +1,22 @@
 package com.ecommerce.project.controller;
 
-import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.config.AppConstants;
+import com.ecommerce.project.payload.CartBatchRequest;
 import com.ecommerce.project.payload.CartDTO;
-import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.payload.CartSliceResponse;
+import com.ecommerce.project.payload.CartSummaryDTO;
 import com.ecommerce.project.service.CartService;
 import com.ecommerce.project.utils.AuthUtil;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/carts")
@@ -22,9 +28,6 @@ public class CartController {
   @Autowired
   AuthUtil authUtil;
 
-  @Autowired
-  CartRepository cartRepository;
-
   @PostMapping("/product/{productId}/quantity/{quantity}")
   private ResponseEntity<CartDTO> addProductToCart(@PathVariable Long productId,
                                                    @PathVariable Integer quantity){
@@ -33,22 +36,48 @@ public class CartController {
     return new ResponseEntity<CartDTO>(cartDTO, HttpStatus.CREATED);
   }
 
+  @PostMapping("/batch")
+  public ResponseEntity<CartDTO> applyCartOperations(@Valid @RequestBody CartBatchRequest cartBatchRequest){
+    CartDTO cartDTO = cartService.applyCartOperations(cartBatchRequest.getOperations());
+
+    return new ResponseEntity<CartDTO>(cartDTO, HttpStatus.OK);
+  }
+
   @GetMapping()
-  public ResponseEntity<List<CartDTO>> getAllCarts(){
-    List<CartDTO> cartDTOList = cartService.getAllCarts();
-    return new ResponseEntity<List<CartDTO>>(cartDTOList, HttpStatus.FOUND);
+  public ResponseEntity<CartSliceResponse> getCartsAfter(@RequestParam(name = "after", required = false) String after,
+                                                         @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE) Integer pageSize,
+                                                         @RequestParam(name = "nonEmpty", defaultValue = "false") boolean nonEmpty,
+                                                         @RequestParam(name = "updatedSince", required = false) Instant updatedSince){
+    CartSliceResponse cartSliceResponse = cartService.getCartsAfter(after, pageSize, nonEmpty, updatedSince);
+    return new ResponseEntity<>(cartSliceResponse, HttpStatus.OK);
+  }
+
+  @GetMapping("/stream")
+  public ResponseEntity<StreamingResponseBody> streamCarts(@RequestParam(name = "nonEmpty", defaultValue = "false") boolean nonEmpty,
+                                                           @RequestParam(name = "updatedSince", required = false) Instant updatedSince){
+    StreamingResponseBody body = outputStream -> cartService.streamCarts(outputStream, nonEmpty, updatedSince);
+
+    return ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType("application/x-ndjson"))
+      .body(body);
   }
 
   @GetMapping("/user/cart")
   public ResponseEntity<CartDTO> getCartById(){
-    String emailId = authUtil.loggedInEmail();
-    Cart cart = cartRepository.findCartByEmail(emailId);
+    CartDTO cartDTO = cartService.getUserCart(authUtil.loggedInUserId());
 
-    Long cartId = cart.getCartId();
+    return new ResponseEntity<CartDTO>(cartDTO, HttpStatus.OK);
+  }
 
-    CartDTO cartDTO = cartService.getCart(emailId, cartId);
+  // the ETag is the summary version, so a poll with a matching If-None-Match gets a bodyless 304
+  @GetMapping("/user/cart/summary")
+  public ResponseEntity<CartSummaryDTO> getCartSummary(){
+    CartSummaryDTO cartSummaryDTO = cartService.getCartSummary(authUtil.loggedInUserId());
 
-    return new ResponseEntity<CartDTO>(cartDTO, HttpStatus.OK);
+    return ResponseEntity.ok()
+      .cacheControl(CacheControl.noCache().cachePrivate())
+      .eTag(Long.toHexString(cartSummaryDTO.getVersion()))
+      .body(cartSummaryDTO);
   }
 
   @PutMapping("/product/{productId}/quantity/{operation}")
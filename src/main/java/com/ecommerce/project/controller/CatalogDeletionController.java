@@ -0,0 +1,32 @@
+package com.ecommerce.project.controller;
+
+import com.ecommerce.project.payload.DeletionJobDTO;
+import com.ecommerce.project.service.CatalogDeletionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class CatalogDeletionController {
+  @Autowired
+  private CatalogDeletionService catalogDeletionService;
+
+  @PostMapping("/admin/deletions/categories/{categoryId}")
+  public ResponseEntity<DeletionJobDTO> deleteCategoryInBackground(@PathVariable Long categoryId) {
+    return new ResponseEntity<>(catalogDeletionService.startCategoryDeletion(categoryId), HttpStatus.ACCEPTED);
+  }
+
+  @PostMapping("/admin/deletions/products")
+  public ResponseEntity<DeletionJobDTO> deleteProductsInBackground(@RequestBody List<Long> productIds) {
+    return new ResponseEntity<>(catalogDeletionService.startProductDeletion(productIds), HttpStatus.ACCEPTED);
+  }
+
+  @GetMapping("/admin/deletions/{jobId}")
+  public ResponseEntity<DeletionJobDTO> getDeletionJob(@PathVariable String jobId) {
+    return new ResponseEntity<>(catalogDeletionService.getDeletionJob(jobId), HttpStatus.OK);
+  }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.project.controller;
 import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.CategorySliceResponse;
 import com.ecommerce.project.service.CategoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,14 @@ public class CategoryController {
     return new ResponseEntity<>(categoryService.getAllCategories(pageNumber, pageSize, sortBy, sortOrder), HttpStatus.OK);
   }
 
+  @GetMapping("/public/categories/scroll")
+  public ResponseEntity<CategorySliceResponse> getCategoriesAfter(@RequestParam(name = "after", required = false) String after,
+                                                                  @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE, required = false) Integer pageSize,
+                                                                  @RequestParam(name = "sortBy", defaultValue = AppConstants.SORT_CATEGORY_BY) String sortBy,
+                                                                  @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER) String sortOrder) {
+    return new ResponseEntity<>(categoryService.getCategoriesAfter(after, pageSize, sortBy, sortOrder), HttpStatus.OK);
+  }
+
   @PostMapping("/public/categories")
   public ResponseEntity<CategoryDTO> createCategory(@Valid @RequestBody CategoryDTO categoryDTO) {
     CategoryDTO savedCategoryDTO = categoryService.createCategory(categoryDTO);
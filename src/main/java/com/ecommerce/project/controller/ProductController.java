@@ -3,17 +3,33 @@ package com.ecommerce.project.controller;
 import com.ecommerce.project.config.AppConstants;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFacetResponse;
+import com.ecommerce.project.payload.ProductFilterRequest;
+import com.ecommerce.project.payload.ProductImportResponse;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.ProductSliceResponse;
+import com.ecommerce.project.payload.ProductSuggestionDTO;
 import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductExportService;
+import com.ecommerce.project.service.ProductImportService;
 import com.ecommerce.project.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api")
@@ -22,6 +38,13 @@ public class ProductController {
   ProductService productService;
   @Autowired
   private ProductRepository productRepository;
+  @Autowired
+  private ProductImportService productImportService;
+  @Autowired
+  private ProductExportService productExportService;
+
+  @Value("${project.product.export-timeout-ms}")
+  private long exportTimeoutMs;
 
   @PostMapping("/admin/categories/{categoryId}/product")
 
@@ -30,6 +53,44 @@ public class ProductController {
     return new ResponseEntity<>(savedProductDTO, HttpStatus.CREATED);
   }
 
+  @PostMapping("/admin/categories/{categoryId}/products/import")
+  public ResponseEntity<ProductImportResponse> importProducts(@PathVariable Long categoryId,
+                                                              @RequestParam(name = "format", defaultValue = AppConstants.IMPORT_FORMAT) String format,
+                                                              InputStream inputStream) throws IOException {
+    ProductImportResponse productImportResponse = productImportService.importProducts(categoryId, inputStream, format);
+    return new ResponseEntity<>(productImportResponse, HttpStatus.OK);
+  }
+
+  @GetMapping("/admin/products/export")
+  public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(name = "format", defaultValue = AppConstants.EXPORT_FORMAT) String format,
+                                                              @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                              HttpServletRequest request){
+    String contentType = productExportService.contentType(format);
+
+    // only the export may run for this long, other async endpoints keep the container default
+    WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeoutMs);
+    boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+
+    StreamingResponseBody body = outputStream -> {
+      if(gzip){
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream, 8192)) {
+          productExportService.exportProducts(gzipOutputStream, format);
+        }
+      }
+      else {
+        productExportService.exportProducts(outputStream, format);
+      }
+    };
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+      .contentType(MediaType.parseMediaType(contentType))
+      .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if(gzip){
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+
   @GetMapping("/public/products")
   public ResponseEntity<ProductResponse> getAllProducts(@RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER) Integer pageNumber,
                                                         @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE) Integer pageSize,
@@ -39,6 +100,15 @@ public class ProductController {
     return new ResponseEntity<>(productResponse, HttpStatus.OK);
   }
 
+  @GetMapping("/public/products/scroll")
+  public ResponseEntity<ProductSliceResponse> getProductsAfter(@RequestParam(name = "after", required = false) String after,
+                                                               @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE) Integer pageSize,
+                                                               @RequestParam(name = "sortBy", defaultValue = AppConstants.SCROLL_PRODUCTS_BY) String sortBy,
+                                                               @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER) String sortOrder){
+    ProductSliceResponse productSliceResponse = productService.getProductsAfter(after, pageSize, sortBy, sortOrder);
+    return new ResponseEntity<>(productSliceResponse, HttpStatus.OK);
+  }
+
   @GetMapping("/public/categories/{categoryId}/product")
   public ResponseEntity<ProductResponse> getProductsByCategory(@PathVariable Long categoryId,
                                                                @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER) Integer pageNumber,
@@ -49,6 +119,16 @@ public class ProductController {
     return new ResponseEntity<>(productResponse, HttpStatus.OK);
   }
 
+  @GetMapping("/public/categories/{categoryId}/product/scroll")
+  public ResponseEntity<ProductSliceResponse> getProductsByCategoryAfter(@PathVariable Long categoryId,
+                                                                         @RequestParam(name = "after", required = false) String after,
+                                                                         @RequestParam(name = "pageSize", defaultValue = AppConstants.PAGE_SIZE) Integer pageSize,
+                                                                         @RequestParam(name = "sortBy", defaultValue = AppConstants.SCROLL_PRODUCTS_BY) String sortBy,
+                                                                         @RequestParam(name = "sortOrder", defaultValue = AppConstants.SORT_ORDER) String sortOrder){
+    ProductSliceResponse productSliceResponse = productService.searchByCategoryAfter(categoryId, after, pageSize, sortBy, sortOrder);
+    return new ResponseEntity<>(productSliceResponse, HttpStatus.OK);
+  }
+
   @GetMapping("/public/products/keyword/{keyword}")
   public ResponseEntity<ProductResponse> getProductsByKeywords(@PathVariable String keyword,
                                                                @RequestParam(name = "pageNumber", defaultValue = AppConstants.PAGE_NUMBER) Integer pageNumber,
@@ -59,9 +139,21 @@ public class ProductController {
     return new ResponseEntity<>(productResponse, HttpStatus.FOUND);
   }
 
+  @GetMapping("/public/products/filter")
+  public ResponseEntity<ProductFacetResponse> filterProducts(ProductFilterRequest filterRequest){
+    return new ResponseEntity<>(productService.filterProducts(filterRequest), HttpStatus.OK);
+  }
+
+  @GetMapping("/public/products/suggest")
+  public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(@RequestParam(name = "prefix") String prefix,
+                                                                    @RequestParam(name = "limit", defaultValue = AppConstants.SUGGEST_LIMIT) Integer limit){
+    return new ResponseEntity<>(productService.suggestProducts(prefix, limit), HttpStatus.OK);
+  }
+
   @PutMapping("/products/{productId}")
-  public ResponseEntity<ProductDTO> updateProduct(@Valid @RequestBody ProductDTO productDTO, @PathVariable Long productId){
-    ProductDTO savedProductDTO = productService.updateProduct(productDTO, productId);
+  public ResponseEntity<ProductDTO> updateProduct(@Valid @RequestBody ProductDTO productDTO, @PathVariable Long productId,
+                                                  @RequestParam(name = "asyncReprice", defaultValue = "false") boolean asyncReprice){
+    ProductDTO savedProductDTO = productService.updateProduct(productDTO, productId, asyncReprice);
     return new ResponseEntity<>(savedProductDTO, HttpStatus.OK);
   }
 
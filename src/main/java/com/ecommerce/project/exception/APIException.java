@@ -8,4 +8,9 @@ public class APIException extends RuntimeException{
   public APIException(String message){
     super(message);
   }
+
+  // for expected, high-volume outcomes such as empty search results where a stack trace is pure overhead
+  public APIException(String message, boolean writableStackTrace){
+    super(message, null, false, writableStackTrace);
+  }
 }
@@ -1,6 +1,7 @@
 package com.ecommerce.project.exception;
 
 import com.ecommerce.project.payload.APIResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -45,4 +46,13 @@ public class MyGlobalExceptionHandler {
     APIResponse apiResponse = new APIResponse(message, false);
     return new ResponseEntity<>(apiResponse, HttpStatus.NOT_FOUND);
   }
+
+  @ExceptionHandler(ServiceBusyException.class)
+  public ResponseEntity<APIResponse> myServiceBusyException(ServiceBusyException serviceBusyException){
+    String message = serviceBusyException.getMessage();
+    APIResponse apiResponse = new APIResponse(message, false);
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+      .header(HttpHeaders.RETRY_AFTER, String.valueOf(serviceBusyException.getRetryAfterSeconds()))
+      .body(apiResponse);
+  }
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.project.exception;
+
+public class ServiceBusyException extends RuntimeException {
+  private static final long serialVersionUId = 1L;
+
+  private final long retryAfterSeconds;
+
+  public ServiceBusyException(String message, long retryAfterSeconds){
+    super(message, null, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Address;
+import com.ecommerce.project.payload.AddressDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AddressMapper {
+  public AddressDTO toAddressDTO(Address address) {
+    return new AddressDTO(address.getId(), address.getStreet(), address.getBuildingName(), address.getCity(),
+      address.getState(), address.getCountry(), address.getZipCode());
+  }
+
+  public Address toAddress(AddressDTO addressDTO) {
+    Address address = new Address(addressDTO.getStreet(), addressDTO.getBuildingName(), addressDTO.getCity(),
+      addressDTO.getState(), addressDTO.getCountry(), addressDTO.getZipCode());
+    address.setId(addressDTO.getId());
+    return address;
+  }
+}
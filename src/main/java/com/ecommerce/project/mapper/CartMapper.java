@@ -0,0 +1,31 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.model.CartItem;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class CartMapper {
+  private final ProductMapper productMapper;
+
+  public CartMapper(ProductMapper productMapper) {
+    this.productMapper = productMapper;
+  }
+
+  // cart lines are reported as products whose quantity is the quantity in the cart, not the stock level
+  public CartDTO toCartDTO(Cart cart) {
+    List<CartItem> cartItems = cart.getCartItems() == null ? List.of() : cart.getCartItems();
+    List<ProductDTO> products = new ArrayList<>(cartItems.size());
+    for (CartItem cartItem : cartItems) {
+      ProductDTO productDTO = productMapper.toProductDTO(cartItem.getProduct());
+      productDTO.setQuantity(cartItem.getQuantity());
+      products.add(productDTO);
+    }
+    return new CartDTO(cart.getCartId(), cart.getTotalPrice(), products);
+  }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Category;
+import com.ecommerce.project.payload.CategoryDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CategoryMapper {
+  public CategoryDTO toCategoryDTO(Category category) {
+    return new CategoryDTO(category.getCategoryId(), category.getCategoryName());
+  }
+
+  public Category toCategory(CategoryDTO categoryDTO) {
+    Category category = new Category();
+    category.setCategoryId(categoryDTO.getCategoryId());
+    category.setCategoryName(categoryDTO.getCategoryName());
+    return category;
+  }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.OrderItem;
+import com.ecommerce.project.model.Orders;
+import com.ecommerce.project.model.Payment;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.PaymentDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class OrderMapper {
+  private final ProductMapper productMapper;
+
+  public OrderMapper(ProductMapper productMapper) {
+    this.productMapper = productMapper;
+  }
+
+  public OrderDTO toOrderDTO(Orders order) {
+    List<OrderItemDTO> orderItems = new ArrayList<>();
+    if(order.getOrderItems() != null){
+      order.getOrderItems().forEach(orderItem -> orderItems.add(toOrderItemDTO(orderItem)));
+    }
+
+    return new OrderDTO(order.getOrderId(), order.getEmail(), orderItems, order.getOrderDate(),
+      toPaymentDTO(order.getPayment()), order.getTotalAmount(), order.getOrderStatus(),
+      order.getAddress() != null ? order.getAddress().getId() : null);
+  }
+
+  public OrderItemDTO toOrderItemDTO(OrderItem orderItem) {
+    return new OrderItemDTO(orderItem.getOrderItemId(), productMapper.toProductDTO(orderItem.getProduct()),
+      orderItem.getQuantity(), orderItem.getDiscount(), orderItem.getOrderedProductPrice());
+  }
+
+  private PaymentDTO toPaymentDTO(Payment payment) {
+    if(payment == null){
+      return null;
+    }
+    return new PaymentDTO((long) payment.getPaymentId(), payment.getPaymentMethod(), payment.getPgPaymentId(),
+      payment.getPgStatus(), payment.getPgResponseMessage(), payment.getPgName());
+  }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.project.mapper;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductMapper {
+  public ProductDTO toProductDTO(Product product) {
+    if(product == null){
+      return null;
+    }
+    return new ProductDTO(product.getProductId(), product.getProductName(), product.getImage(), product.getDescription(),
+      product.getQuantity(), product.getPrice(), product.getDiscount(), product.getSpacialPrice());
+  }
+
+  public Product toProduct(ProductDTO productDTO) {
+    Product product = new Product();
+    product.setProductId(productDTO.getProductId());
+    product.setProductName(productDTO.getProductName());
+    product.setImage(productDTO.getImage());
+    product.setDescription(productDTO.getDescription());
+    product.setQuantity(productDTO.getQuantity());
+    product.setPrice(productDTO.getPrice());
+    product.setDiscount(productDTO.getDiscount());
+    product.setSpacialPrice(productDTO.getSpacialPrice());
+    return product;
+  }
+}
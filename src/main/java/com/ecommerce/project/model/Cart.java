@@ -6,12 +6,15 @@ import lombok.Data;
 import lombok.Generated;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Data
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+  @Index(name = "idx_carts_last_updated", columnList = "last_updated")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Cart {
@@ -28,4 +31,14 @@ public class Cart {
   private List<CartItem> cartItems = new ArrayList<>();
 
   private Double totalPrice=0.0;
+
+  // bulk updates on carts set this themselves, entity writes go through touch()
+  @Column(name = "last_updated")
+  private Instant lastUpdated;
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    lastUpdated = Instant.now();
+  }
 }
@@ -5,11 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Entity
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+  @Index(name = "idx_cart_items_reserved_until", columnList = "reserved_until")
+})
 public class CartItem {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,4 +30,7 @@ public class CartItem {
   private Integer quantity;
   private Double discount;
   private Double productPrice;
+
+  @Column(name = "reserved_until")
+  private Instant reservedUntil;
 }
@@ -19,7 +19,7 @@ import java.util.List;
 @ToString
 public class Product {
   @Id
-  @GeneratedValue(strategy = GenerationType.AUTO)
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long productId;
   @NotBlank
   @Size(min = 3, message = "Product Name should have at least 3 letter")
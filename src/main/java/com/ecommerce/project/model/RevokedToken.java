@@ -0,0 +1,28 @@
+package com.ecommerce.project.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revoked_tokens", indexes = {
+  @Index(name = "idx_revoked_tokens_revoked_at", columnList = "revoked_at"),
+  @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at")
+})
+public class RevokedToken {
+  @Id
+  @Column(name = "token_id", length = 36)
+  private String tokenId;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "revoked_at", nullable = false)
+  private Instant revokedAt;
+}
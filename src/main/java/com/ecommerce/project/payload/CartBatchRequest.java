@@ -0,0 +1,19 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartBatchRequest {
+  @NotEmpty
+  @Size(max = 200, message = "At most 200 operations can be applied at once")
+  private List<@Valid CartOperationDTO> operations;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.project.payload;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartOperationDTO {
+  // ADD puts a new line in the cart, UPDATE sets the line to quantity (0 removes it), REMOVE drops the line
+  public enum Operation {
+    ADD, UPDATE, REMOVE
+  }
+
+  @NotNull
+  private Operation operation;
+
+  @NotNull
+  private Long productId;
+
+  private Integer quantity;
+}
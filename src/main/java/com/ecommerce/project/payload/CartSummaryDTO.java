@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummaryDTO {
+  private Long cartId;
+  private Integer itemCount = 0;
+  private Integer totalQuantity = 0;
+  private Double totalPrice = 0.0;
+
+  // changes whenever any of the cart's lines or its total changes, clients send it back as If-None-Match
+  private Long version = 0L;
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJobDTO {
+  private String jobId;
+  private String target;
+  private Long targetId;
+  private String status;
+  private long totalProducts;
+  private long deletedProducts;
+  private Instant startedAt;
+  private Instant finishedAt;
+  private String errorMessage;
+}
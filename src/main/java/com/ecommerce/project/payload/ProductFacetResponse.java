@@ -0,0 +1,24 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResponse {
+  private List<ProductDTO> content;
+  private Integer pageNumber;
+  private Integer pageSize;
+  private Long totalElements;
+  private Integer totalPage;
+  private boolean lastPage;
+  private Map<Long, Long> categoryCounts;
+  private Map<String, Long> priceRangeCounts;
+  private Map<String, Long> discountCounts;
+  private long inStockCount;
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.project.payload;
+
+import com.ecommerce.project.config.AppConstants;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFilterRequest {
+  private Double minPrice;
+  private Double maxPrice;
+  private Double minDiscount;
+  private boolean inStock;
+  private List<Long> categoryId;
+  private Integer pageNumber = Integer.valueOf(AppConstants.PAGE_NUMBER);
+  private Integer pageSize = Integer.valueOf(AppConstants.PAGE_SIZE);
+  private String sortBy = AppConstants.SORT_PRODUCTS_BY;
+  private String sortOrder = AppConstants.SORT_ORDER;
+}
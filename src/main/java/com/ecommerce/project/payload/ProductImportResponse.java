@@ -0,0 +1,18 @@
+package com.ecommerce.project.payload;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResponse {
+  private long totalRows;
+  private long importedRows;
+  private long failedRows;
+  private List<ImportRowError> errors;
+  private boolean errorsTruncated;
+}
@@ -3,6 +3,9 @@ package com.ecommerce.project.repository;
 import com.ecommerce.project.model.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
+
 public interface AddressRepository extends JpaRepository<Address,Long> {
+  List<Address> findByUsersId(Long userId);
 
 }
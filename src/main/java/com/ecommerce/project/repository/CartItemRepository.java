@@ -1,15 +1,58 @@
 package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.CartItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
   @Query("SELECT c FROM CartItem c WHERE c.cart.cartId = ?1 AND c.product.productId=?2")
   CartItem findCartItemByProductIdAndCartId(Long cartId, Long productId);
 
   @Modifying
   @Query("DELETE FROM CartItem c WHERE c.cart.cartId =?1 AND c.product.productId =?2")
-  void deleteCartItemByProductIdAndCartId(Long cartId, Long productId);
+  int deleteCartItemByProductIdAndCartId(Long cartId, Long productId);
+
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c.cartItemId, c.product.productId, c.quantity FROM CartItem c " +
+    "WHERE c.cartItemId IN ?1 AND c.reservedUntil <= ?2")
+  List<Object[]> lockExpiredReservations(Collection<Long> cartItemIds, Instant now);
+
+  @Modifying
+  @Query("DELETE FROM CartItem c WHERE c.cartItemId IN ?1")
+  int deleteByCartItemIdIn(Collection<Long> cartItemIds);
+
+  @Query("SELECT c.cartItemId, c.reservedUntil FROM CartItem c " +
+    "WHERE c.reservedUntil IS NOT NULL AND c.cartItemId > ?1 ORDER BY c.cartItemId")
+  List<Object[]> findReservationsAfter(Long cartItemId, Pageable pageable);
+
+  @Query("SELECT DISTINCT c.cart.cartId FROM CartItem c WHERE c.product.productId = ?1")
+  List<Long> findCartIdsByProductId(Long productId);
+
+  @Modifying
+  @Query("UPDATE CartItem c SET c.productPrice = ?2 WHERE c.product.productId = ?1 AND c.cart.cartId IN ?3")
+  int updateProductPriceInCarts(Long productId, Double productPrice, List<Long> cartIds);
+
+  @Modifying
+  @Query("DELETE FROM CartItem c WHERE c.product.productId IN ?1")
+  int deleteByProductIdIn(List<Long> productIds);
+
+  @Query("SELECT c.cart.cartId, c.product.productId, c.quantity FROM CartItem c WHERE c.cart.cartId IN ?1 " +
+    "ORDER BY c.cart.cartId, c.cartItemId")
+  List<Object[]> findCartLinesByCartIdIn(Collection<Long> cartIds);
+
+  @Query("SELECT c.product.productId, c.quantity, c.cartItemId, c.productPrice FROM CartItem c WHERE c.cart.cartId = ?1 " +
+    "ORDER BY c.cartItemId")
+  List<Object[]> findProductQuantitiesByCartId(Long cartId);
+
+  @Modifying
+  @Query("DELETE FROM CartItem c WHERE c.cart.cartId = ?1")
+  int deleteByCartId(Long cartId);
 }
@@ -1,9 +1,13 @@
 package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.Cart;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
@@ -13,7 +17,45 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
   @Query("SELECT c FROM Cart c WHERE c.user.email =?1 AND c.cartId= ?2")
   Cart findCartByEmailAndCartId(String emailId, Long cartId);
 
+  @Query("SELECT c.cartId, c.totalPrice FROM Cart c WHERE c.user.id = ?1")
+  List<Object[]> findCartIdAndTotalPriceByUserId(Long userId);
+
+  @Query("SELECT DISTINCT c.user.id FROM Cart c WHERE c.cartId IN " +
+    "(SELECT ci.cart.cartId FROM CartItem ci WHERE ci.cartItemId IN ?1)")
+  List<Long> findUserIdsByCartItemIdIn(Collection<Long> cartItemIds);
+
+  @Query("SELECT c.cartId, c.totalPrice FROM Cart c WHERE c.cartId > ?1 " +
+    "AND (?2 = false OR EXISTS (SELECT 1 FROM CartItem ci WHERE ci.cart = c)) " +
+    "AND (?3 IS NULL OR c.lastUpdated >= ?3) ORDER BY c.cartId")
+  List<Object[]> findCartsAfter(Long cartId, boolean nonEmpty, Instant updatedSince, Pageable pageable);
+
 
   @Query("SELECT c FROM Cart c JOIN FETCH c.cartItems ci JOIN FETCH ci.product p WHERE p.productId =?1")
   List<Cart> findCartsByProductId(Long productId);
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.totalPrice = c.totalPrice + " +
+    "(SELECT SUM((?2 - ci.productPrice) * ci.quantity) FROM CartItem ci WHERE ci.cart = c AND ci.product.productId = ?1), " +
+    "c.lastUpdated = ?4 WHERE c.cartId IN ?3")
+  int repriceTotalPriceForProduct(Long productId, Double productPrice, List<Long> cartIds, Instant lastUpdated);
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.totalPrice = c.totalPrice - " +
+    "(SELECT SUM(ci.productPrice * ci.quantity) FROM CartItem ci WHERE ci.cart = c AND ci.product.productId IN ?1), c.lastUpdated = ?2 " +
+    "WHERE c.cartId IN (SELECT ci.cart.cartId FROM CartItem ci WHERE ci.product.productId IN ?1)")
+  int removeProductsFromTotalPrice(List<Long> productIds, Instant lastUpdated);
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.totalPrice = c.totalPrice - " +
+    "(SELECT SUM(ci.productPrice * ci.quantity) FROM CartItem ci WHERE ci.cart = c AND ci.cartItemId IN ?1), c.lastUpdated = ?2 " +
+    "WHERE c.cartId IN (SELECT ci.cart.cartId FROM CartItem ci WHERE ci.cartItemId IN ?1)")
+  int removeCartItemsFromTotalPrice(Collection<Long> cartItemIds, Instant lastUpdated);
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.totalPrice = c.totalPrice + ?2, c.lastUpdated = ?3 WHERE c.cartId = ?1")
+  int addToTotalPrice(Long cartId, double amount, Instant lastUpdated);
+
+  @Modifying
+  @Query("UPDATE Cart c SET c.totalPrice = 0, c.lastUpdated = ?2 WHERE c.cartId = ?1")
+  int resetTotalPrice(Long cartId, Instant lastUpdated);
 }
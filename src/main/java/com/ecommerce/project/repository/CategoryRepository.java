@@ -1,7 +1,14 @@
 package com.ecommerce.project.repository;
 import com.ecommerce.project.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
-public interface CategoryRepository extends JpaRepository<Category, Long> {
+public interface CategoryRepository extends JpaRepository<Category, Long>, JpaSpecificationExecutor<Category> {
   Category findByCategoryName(String categoryName);
+
+  @Modifying
+  @Query("DELETE FROM categories c WHERE c.categoryId = ?1")
+  int deleteByCategoryId(Long categoryId);
 }
@@ -2,6 +2,22 @@ package com.ecommerce.project.repository;
 
 import com.ecommerce.project.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+  @Query("SELECT oi.product.productId, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.productId")
+  List<Object[]> sumQuantitiesByProduct();
+
+  @Modifying
+  @Query("INSERT INTO OrderItem (order, product, quantity, discount, orderedProductPrice) " +
+    "SELECT o, ci.product, ci.quantity, ci.discount, ci.productPrice FROM CartItem ci, Orders o " +
+    "WHERE ci.cart.cartId = ?1 AND o.orderId = ?2")
+  int copyCartItemsToOrder(Long cartId, Long orderId);
+
+  @Query("SELECT oi.orderItemId, oi.product.productId, oi.quantity, oi.discount, oi.orderedProductPrice " +
+    "FROM OrderItem oi WHERE oi.order.orderId = ?1 ORDER BY oi.orderItemId")
+  List<Object[]> findOrderItemRowsByOrderId(Long orderId);
 }
@@ -1,17 +1,68 @@
 package com.ecommerce.project.repository;
 
-import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.search.IndexedProduct;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-  Page<Product> findByCategoryOrderByPriceAsc(Category category, Pageable pageable);
-
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
   Product findByProductName(String productName);
 
-  Page<Product> findByProductNameLikeIgnoreCase(String keyword, Pageable pageDetails);
+  @Query(value = "SELECT new com.ecommerce.project.payload.ProductDTO(p.productId, p.productName, p.image, " +
+    "p.description, p.quantity, p.price, p.discount, p.spacialPrice) FROM Product p",
+    countQuery = "SELECT count(p) FROM Product p")
+  Page<ProductDTO> findAllProductDTOs(Pageable pageable);
+
+  @Query("SELECT new com.ecommerce.project.payload.ProductDTO(p.productId, p.productName, p.image, " +
+    "p.description, p.quantity, p.price, p.discount, p.spacialPrice) FROM Product p WHERE p.productId IN ?1")
+  List<ProductDTO> findProductDTOsByProductIdIn(Collection<Long> productIds);
+
+  @Query("SELECT new com.ecommerce.project.search.IndexedProduct(p.productId, p.productName, p.image, p.description, " +
+    "p.quantity, p.price, p.discount, p.spacialPrice, c.categoryId) FROM Product p LEFT JOIN p.category c")
+  List<IndexedProduct> findAllIndexedProducts();
+
+  @Query("SELECT new com.ecommerce.project.search.IndexedProduct(p.productId, p.productName, p.image, p.description, " +
+    "p.quantity, p.price, p.discount, p.spacialPrice, c.categoryId) FROM Product p JOIN p.category c " +
+    "WHERE c.categoryId = ?1 AND p.productName IN ?2")
+  List<IndexedProduct> findIndexedProductsByCategoryIdAndProductNameIn(Long categoryId, Collection<String> productNames);
+
+  @Query("SELECT p.productName FROM Product p WHERE p.category.categoryId = ?1")
+  List<String> findProductNamesByCategoryId(Long categoryId);
+
+  @Query("SELECT new com.ecommerce.project.payload.ProductDTO(p.productId, p.productName, p.image, " +
+    "p.description, p.quantity, p.price, p.discount, p.spacialPrice) FROM Product p WHERE p.productId = ?1")
+  Optional<ProductDTO> findProductDTOById(Long productId);
+
+  @Query("SELECT p.productId FROM Product p WHERE p.category.categoryId = ?1 ORDER BY p.productId")
+  List<Long> findProductIdsByCategoryId(Long categoryId, Pageable pageable);
+
+  @Query("SELECT count(p) FROM Product p WHERE p.category.categoryId = ?1")
+  long countByCategoryId(Long categoryId);
+
+  @Modifying
+  @Query("DELETE FROM Product p WHERE p.productId IN ?1")
+  int deleteByProductIdIn(List<Long> productIds);
+
+  @Modifying
+  @Query("UPDATE Product p SET p.quantity = p.quantity - ?2 WHERE p.productId = ?1 AND p.quantity >= ?2")
+  int reserveQuantity(Long productId, int quantity);
+
+  @Modifying
+  @Query("UPDATE Product p SET p.quantity = p.quantity + ?2 WHERE p.productId = ?1")
+  int releaseQuantity(Long productId, int quantity);
+
+  @Modifying
+  @Query("UPDATE Product p SET p.quantity = p.quantity + " +
+    "(SELECT SUM(ci.quantity) FROM CartItem ci WHERE ci.product = p AND ci.cartItemId IN ?1) " +
+    "WHERE p.productId IN (SELECT ci.product.productId FROM CartItem ci WHERE ci.cartItemId IN ?1)")
+  int releaseQuantityForCartItems(Collection<Long> cartItemIds);
 }
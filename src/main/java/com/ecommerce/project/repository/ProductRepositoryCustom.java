@@ -0,0 +1,12 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+  List<ProductDTO> findProductDTOs(Specification<Product> specification, Sort sort, int limit);
+}
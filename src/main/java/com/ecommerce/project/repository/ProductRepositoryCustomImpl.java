@@ -0,0 +1,45 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  public List<ProductDTO> findProductDTOs(Specification<Product> specification, Sort sort, int limit) {
+    CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    CriteriaQuery<ProductDTO> query = criteriaBuilder.createQuery(ProductDTO.class);
+    Root<Product> root = query.from(Product.class);
+
+    query.select(criteriaBuilder.construct(ProductDTO.class,
+      root.get("productId"),
+      root.get("productName"),
+      root.get("image"),
+      root.get("description"),
+      root.get("quantity"),
+      root.get("price"),
+      root.get("discount"),
+      root.get("spacialPrice")));
+
+    Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+    if(predicate != null){
+      query.where(predicate);
+    }
+    query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+    return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+  }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.project.repository;
+
+import com.ecommerce.project.model.RevokedToken;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+  List<RevokedToken> findByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant revokedSince, Instant now);
+
+  List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= ?1")
+  int deleteExpired(Instant now);
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class CategoryProductIndex implements ProductChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(CategoryProductIndex.class);
+
+  public static final String DEFAULT_SORT = "price";
+
+  // every ordering ends with productId so that positions are stable and removals can binary search
+  private static final Map<String, Comparator<IndexedProduct>> ORDERINGS = Map.of(
+    "price", withIdTieBreak(Comparator.comparingDouble(IndexedProduct::getPrice)),
+    "spacialPrice", withIdTieBreak(Comparator.comparingDouble(IndexedProduct::getSpacialPrice)),
+    "discount", withIdTieBreak(Comparator.comparingDouble(IndexedProduct::getDiscount)),
+    "productName", withIdTieBreak(Comparator.comparing(IndexedProduct::getProductName,
+      Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder())))),
+    "productId", Comparator.comparing(IndexedProduct::getProductId)
+  );
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+  // categoryId -> sort field -> products of that category kept sorted by that field
+  private final Map<Long, Map<String, List<IndexedProduct>>> categories = new HashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<IndexedProduct> allProducts = productRepository.findAllIndexedProducts();
+
+    lock.writeLock().lock();
+    try {
+      products.clear();
+      categories.clear();
+
+      allProducts.forEach(product -> products.put(product.getProductId(), product));
+      allProducts.stream()
+        .filter(product -> product.getCategoryId() != null)
+        .forEach(product -> orderings(product.getCategoryId()).values().forEach(sorted -> sorted.add(product)));
+      categories.values().forEach(byField -> byField.forEach((field, sorted) -> sorted.sort(ORDERINGS.get(field))));
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    logger.info("Category product index built for {} categories", categories.size());
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(product.getProductId());
+      products.put(product.getProductId(), product);
+      if(product.getCategoryId() != null){
+        orderings(product.getCategoryId()).forEach((field, sorted) -> {
+          int index = Collections.binarySearch(sorted, product, ORDERINGS.get(field));
+          sorted.add(index < 0 ? -index - 1 : index, product);
+        });
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static boolean isSortable(String sortBy) {
+    return ORDERINGS.containsKey(sortBy);
+  }
+
+  public Page<Long> page(Long categoryId, String sortBy, boolean ascending, int pageNumber, int pageSize) {
+    String field = isSortable(sortBy) ? sortBy : DEFAULT_SORT;
+
+    lock.readLock().lock();
+    try {
+      List<IndexedProduct> sorted = categories.getOrDefault(categoryId, Map.of()).getOrDefault(field, List.of());
+      int size = sorted.size();
+      int from = (int) Math.min((long) pageNumber * pageSize, size);
+      int to = Math.min(from + pageSize, size);
+
+      List<Long> productIds = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        productIds.add(sorted.get(ascending ? i : size - 1 - i).getProductId());
+      }
+      return new PageImpl<>(productIds, PageRequest.of(pageNumber, pageSize), size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Map<String, List<IndexedProduct>> orderings(Long categoryId) {
+    return categories.computeIfAbsent(categoryId, key -> {
+      Map<String, List<IndexedProduct>> byField = new HashMap<>();
+      ORDERINGS.keySet().forEach(field -> byField.put(field, new ArrayList<>()));
+      return byField;
+    });
+  }
+
+  private void removeInternal(Long productId) {
+    IndexedProduct existing = products.remove(productId);
+    if(existing == null || existing.getCategoryId() == null){
+      return;
+    }
+
+    Map<String, List<IndexedProduct>> byField = categories.get(existing.getCategoryId());
+    byField.forEach((field, sorted) -> sorted.remove(Collections.binarySearch(sorted, existing, ORDERINGS.get(field))));
+    if(byField.get(DEFAULT_SORT).isEmpty()){
+      categories.remove(existing.getCategoryId());
+    }
+  }
+
+  private static Comparator<IndexedProduct> withIdTieBreak(Comparator<IndexedProduct> ordering) {
+    return ordering.thenComparing(IndexedProduct::getProductId);
+  }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.project.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class FacetResult {
+  private final Page<Long> productIds;
+  private final Map<Long, Long> categoryCounts;
+  private final Map<String, Long> priceRangeCounts;
+  private final Map<String, Long> discountCounts;
+  private final long inStockCount;
+}
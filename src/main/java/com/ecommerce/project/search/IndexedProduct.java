@@ -0,0 +1,40 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndexedProduct {
+  private Long productId;
+  private String productName;
+  private String image;
+  private String description;
+  private Integer quantity;
+  private double price;
+  private double discount;
+  private double spacialPrice;
+  private Long categoryId;
+
+  public static IndexedProduct from(Product product) {
+    return new IndexedProduct(
+      product.getProductId(),
+      product.getProductName(),
+      product.getImage(),
+      product.getDescription(),
+      product.getQuantity(),
+      product.getPrice(),
+      product.getDiscount(),
+      product.getSpacialPrice(),
+      product.getCategory() != null ? product.getCategory().getCategoryId() : null
+    );
+  }
+
+  public ProductDTO toProductDTO() {
+    return new ProductDTO(productId, productName, image, description, quantity, price, discount, spacialPrice);
+  }
+}
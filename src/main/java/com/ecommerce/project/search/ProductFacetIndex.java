@@ -0,0 +1,343 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.exception.APIException;
+import com.ecommerce.project.payload.ProductFilterRequest;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductFacetIndex implements ProductChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+  private static final List<String> SORTABLE_FIELDS = List.of("productId", "price", "spacialPrice", "discount", "quantity", "categoryId");
+
+  // upper bounds of the selling price buckets; the last bucket is open-ended
+  private static final double[] PRICE_RANGE_BOUNDS = {100, 250, 500, 1000};
+  private static final double[] DISCOUNT_THRESHOLDS = {10, 25, 50};
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // one slot per product; columns are parallel primitive arrays and slots of removed products are reused
+  private long[] productIds = new long[INITIAL_CAPACITY];
+  private double[] prices = new double[INITIAL_CAPACITY];
+  private double[] spacialPrices = new double[INITIAL_CAPACITY];
+  private double[] discounts = new double[INITIAL_CAPACITY];
+  private int[] quantities = new int[INITIAL_CAPACITY];
+  private long[] categoryIds = new long[INITIAL_CAPACITY];
+
+  private final BitSet live = new BitSet();
+  private final BitSet inStock = new BitSet();
+  private final Map<Long, BitSet> categories = new HashMap<>();
+  private final Map<Long, Integer> slots = new HashMap<>();
+  private final Deque<Integer> freeSlots = new ArrayDeque<>();
+  private int nextSlot;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<IndexedProduct> allProducts = productRepository.findAllIndexedProducts();
+
+    lock.writeLock().lock();
+    try {
+      live.clear();
+      inStock.clear();
+      categories.clear();
+      slots.clear();
+      freeSlots.clear();
+      nextSlot = 0;
+      allProducts.forEach(this::putInternal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    logger.info("Product facet index built with {} products", allProducts.size());
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(product.getProductId());
+      putInternal(product);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productQuantityAdjusted(Long productId, int delta) {
+    lock.writeLock().lock();
+    try {
+      Integer slot = slots.get(productId);
+      if(slot != null){
+        quantities[slot] += delta;
+        inStock.set(slot, quantities[slot] > 0);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public FacetResult filter(ProductFilterRequest request) {
+    if(!SORTABLE_FIELDS.contains(request.getSortBy())){
+      throw new APIException("Sorting by " + request.getSortBy() + " is not supported, use one of " + SORTABLE_FIELDS);
+    }
+
+    lock.readLock().lock();
+    try {
+      BitSet priceMatches = request.getMinPrice() == null && request.getMaxPrice() == null ? null : priceMatches(request);
+      BitSet discountMatches = request.getMinDiscount() == null ? null : discountMatches(request.getMinDiscount());
+      BitSet stockMatches = request.isInStock() ? inStock : null;
+      BitSet categoryMatches = request.getCategoryId() == null || request.getCategoryId().isEmpty()
+        ? null : categoryMatches(request.getCategoryId());
+
+      BitSet matches = intersect(priceMatches, discountMatches, stockMatches, categoryMatches);
+
+      // each facet is counted with every filter except its own, so clients can see what widening a choice would add
+      Map<Long, Long> categoryCounts = new TreeMap<>();
+      BitSet withoutCategory = intersect(priceMatches, discountMatches, stockMatches);
+      categories.forEach((categoryId, members) -> {
+        BitSet inCategory = (BitSet) members.clone();
+        inCategory.and(withoutCategory);
+        if(!inCategory.isEmpty()){
+          categoryCounts.put(categoryId, (long) inCategory.cardinality());
+        }
+      });
+
+      Map<String, Long> priceRangeCounts = priceRangeCounts(intersect(discountMatches, stockMatches, categoryMatches));
+      Map<String, Long> discountCounts = discountCounts(intersect(priceMatches, stockMatches, categoryMatches));
+
+      BitSet withoutStock = intersect(priceMatches, discountMatches, categoryMatches);
+      withoutStock.and(inStock);
+
+      return new FacetResult(page(matches, request), categoryCounts, priceRangeCounts, discountCounts, withoutStock.cardinality());
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private PageImpl<Long> page(BitSet matches, ProductFilterRequest request) {
+    int[] matchingSlots = matches.stream().toArray();
+    double[] keys = new double[matchingSlots.length];
+    for (int i = 0; i < matchingSlots.length; i++) {
+      keys[i] = sortKey(matchingSlots[i], request.getSortBy());
+    }
+
+    int[] order = sortedPositions(keys, matchingSlots, request.getSortOrder().equalsIgnoreCase("asc"));
+
+    int pageSize = request.getPageSize();
+    int from = (int) Math.min((long) request.getPageNumber() * pageSize, order.length);
+    int to = Math.min(from + pageSize, order.length);
+    List<Long> pageIds = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      pageIds.add(productIds[matchingSlots[order[i]]]);
+    }
+    return new PageImpl<>(pageIds, PageRequest.of(request.getPageNumber(), pageSize), order.length);
+  }
+
+  private double sortKey(int slot, String sortBy) {
+    return switch (sortBy) {
+      case "price" -> prices[slot];
+      case "spacialPrice" -> spacialPrices[slot];
+      case "discount" -> discounts[slot];
+      case "quantity" -> quantities[slot];
+      case "categoryId" -> categoryIds[slot];
+      default -> productIds[slot];
+    };
+  }
+
+  // merge sort of positions into the key array, ties broken by productId so paging is stable
+  private int[] sortedPositions(double[] keys, int[] matchingSlots, boolean ascending) {
+    int[] positions = new int[keys.length];
+    for (int i = 0; i < positions.length; i++) {
+      positions[i] = i;
+    }
+
+    int[] buffer = new int[keys.length];
+    for (int width = 1; width < positions.length; width *= 2) {
+      for (int left = 0; left < positions.length; left += 2 * width) {
+        int middle = Math.min(left + width, positions.length);
+        int right = Math.min(left + 2 * width, positions.length);
+        int i = left, j = middle, k = left;
+        while (i < middle && j < right) {
+          buffer[k++] = compare(positions[i], positions[j], keys, matchingSlots, ascending) <= 0 ? positions[i++] : positions[j++];
+        }
+        while (i < middle) {
+          buffer[k++] = positions[i++];
+        }
+        while (j < right) {
+          buffer[k++] = positions[j++];
+        }
+      }
+      int[] swap = positions;
+      positions = buffer;
+      buffer = swap;
+    }
+    return positions;
+  }
+
+  private int compare(int a, int b, double[] keys, int[] matchingSlots, boolean ascending) {
+    int result = Double.compare(keys[a], keys[b]);
+    if(result == 0){
+      result = Long.compare(productIds[matchingSlots[a]], productIds[matchingSlots[b]]);
+    }
+    return ascending ? result : -result;
+  }
+
+  private BitSet priceMatches(ProductFilterRequest request) {
+    double min = request.getMinPrice() == null ? Double.NEGATIVE_INFINITY : request.getMinPrice();
+    double max = request.getMaxPrice() == null ? Double.POSITIVE_INFINITY : request.getMaxPrice();
+    BitSet result = new BitSet(nextSlot);
+    for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+      if(spacialPrices[slot] >= min && spacialPrices[slot] <= max){
+        result.set(slot);
+      }
+    }
+    return result;
+  }
+
+  private BitSet discountMatches(double minDiscount) {
+    BitSet result = new BitSet(nextSlot);
+    for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+      if(discounts[slot] >= minDiscount){
+        result.set(slot);
+      }
+    }
+    return result;
+  }
+
+  private BitSet categoryMatches(List<Long> requestedCategories) {
+    BitSet result = new BitSet(nextSlot);
+    requestedCategories.forEach(categoryId -> {
+      BitSet members = categories.get(categoryId);
+      if(members != null){
+        result.or(members);
+      }
+    });
+    return result;
+  }
+
+  private Map<String, Long> priceRangeCounts(BitSet candidates) {
+    long[] counts = new long[PRICE_RANGE_BOUNDS.length + 1];
+    for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+      int bucket = 0;
+      while (bucket < PRICE_RANGE_BOUNDS.length && spacialPrices[slot] >= PRICE_RANGE_BOUNDS[bucket]) {
+        bucket++;
+      }
+      counts[bucket]++;
+    }
+
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (int bucket = 0; bucket < counts.length; bucket++) {
+      String lower = bucket == 0 ? "0" : formatBound(PRICE_RANGE_BOUNDS[bucket - 1]);
+      String label = bucket < PRICE_RANGE_BOUNDS.length ? lower + "-" + formatBound(PRICE_RANGE_BOUNDS[bucket]) : lower + "+";
+      result.put(label, counts[bucket]);
+    }
+    return result;
+  }
+
+  private Map<String, Long> discountCounts(BitSet candidates) {
+    long[] counts = new long[DISCOUNT_THRESHOLDS.length];
+    for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+      for (int i = 0; i < DISCOUNT_THRESHOLDS.length && discounts[slot] >= DISCOUNT_THRESHOLDS[i]; i++) {
+        counts[i]++;
+      }
+    }
+
+    Map<String, Long> result = new LinkedHashMap<>();
+    for (int i = 0; i < DISCOUNT_THRESHOLDS.length; i++) {
+      result.put(formatBound(DISCOUNT_THRESHOLDS[i]) + "+", counts[i]);
+    }
+    return result;
+  }
+
+  private BitSet intersect(BitSet... filters) {
+    BitSet result = (BitSet) live.clone();
+    for (BitSet filter : filters) {
+      if(filter != null){
+        result.and(filter);
+      }
+    }
+    return result;
+  }
+
+  private void putInternal(IndexedProduct product) {
+    int slot = freeSlots.isEmpty() ? nextSlot++ : freeSlots.pop();
+    ensureCapacity(slot + 1);
+
+    productIds[slot] = product.getProductId();
+    prices[slot] = product.getPrice();
+    spacialPrices[slot] = product.getSpacialPrice();
+    discounts[slot] = product.getDiscount();
+    quantities[slot] = product.getQuantity() == null ? 0 : product.getQuantity();
+    categoryIds[slot] = product.getCategoryId() == null ? 0 : product.getCategoryId();
+
+    slots.put(product.getProductId(), slot);
+    live.set(slot);
+    inStock.set(slot, quantities[slot] > 0);
+    if(product.getCategoryId() != null){
+      categories.computeIfAbsent(product.getCategoryId(), key -> new BitSet()).set(slot);
+    }
+  }
+
+  private void removeInternal(Long productId) {
+    Integer slot = slots.remove(productId);
+    if(slot == null){
+      return;
+    }
+
+    live.clear(slot);
+    inStock.clear(slot);
+    BitSet members = categories.get(categoryIds[slot]);
+    if(members != null){
+      members.clear(slot);
+      if(members.isEmpty()){
+        categories.remove(categoryIds[slot]);
+      }
+    }
+    freeSlots.push(slot);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if(capacity <= productIds.length){
+      return;
+    }
+
+    int newCapacity = Math.max(capacity, productIds.length * 2);
+    productIds = Arrays.copyOf(productIds, newCapacity);
+    prices = Arrays.copyOf(prices, newCapacity);
+    spacialPrices = Arrays.copyOf(spacialPrices, newCapacity);
+    discounts = Arrays.copyOf(discounts, newCapacity);
+    quantities = Arrays.copyOf(quantities, newCapacity);
+    categoryIds = Arrays.copyOf(categoryIds, newCapacity);
+  }
+
+  private static String formatBound(double bound) {
+    return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+  }
+}
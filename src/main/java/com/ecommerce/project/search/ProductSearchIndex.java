@@ -0,0 +1,336 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class ProductSearchIndex implements ProductChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+  private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final int NAME_WEIGHT = 3;
+  private static final int DESCRIPTION_WEIGHT = 1;
+  private static final double PREFIX_MATCH_FACTOR = 0.5;
+  private static final double FUZZY_MATCH_FACTOR = 0.6;
+
+  // BM25 term frequency saturation and document length normalisation
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  private static final int MIN_FUZZY_LENGTH = 4;
+  private static final int TWO_EDITS_LENGTH = 8;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+  private final Map<Long, Map<String, Integer>> termsByProduct = new HashMap<>();
+
+  private final Map<Long, Integer> documentLengths = new HashMap<>();
+
+  private long totalDocumentLength;
+
+  // term -> (productId -> weighted term frequency); sorted so the last query token can be prefix-expanded
+  private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+  // trigram -> vocabulary terms containing it, used to find candidates for misspelled tokens
+  private final Map<String, Set<String>> trigrams = new HashMap<>();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<IndexedProduct> allProducts = productRepository.findAllIndexedProducts();
+
+    lock.writeLock().lock();
+    try {
+      products.clear();
+      termsByProduct.clear();
+      documentLengths.clear();
+      totalDocumentLength = 0;
+      postings.clear();
+      trigrams.clear();
+      allProducts.forEach(this::addInternal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    logger.info("Product search index built with {} products and {} terms", allProducts.size(), postings.size());
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(product.getProductId());
+      addInternal(product);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productQuantityAdjusted(Long productId, int delta) {
+    lock.writeLock().lock();
+    try {
+      IndexedProduct product = products.get(productId);
+      if(product != null && product.getQuantity() != null){
+        IndexedProduct adjusted = new IndexedProduct(product.getProductId(), product.getProductName(), product.getImage(),
+          product.getDescription(), product.getQuantity() + delta, product.getPrice(), product.getDiscount(),
+          product.getSpacialPrice(), product.getCategoryId());
+        products.put(productId, adjusted);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public ProductResponse search(String keyword, int pageNumber, int pageSize) {
+    List<String> queryTokens = new ArrayList<>(new LinkedHashSet<>(tokenize(keyword)));
+
+    List<ProductDTO> content = new ArrayList<>();
+    long totalElements = 0;
+
+    if(!queryTokens.isEmpty()){
+      lock.readLock().lock();
+      try {
+        List<Map.Entry<Long, Double>> ranked = rank(queryTokens);
+        totalElements = ranked.size();
+
+        int from = (int) Math.min((long) pageNumber * pageSize, ranked.size());
+        int to = Math.min(from + pageSize, ranked.size());
+        for (Map.Entry<Long, Double> entry : ranked.subList(from, to)) {
+          content.add(products.get(entry.getKey()).toProductDTO());
+        }
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    int totalPages = pageSize > 0 ? (int) ((totalElements + pageSize - 1) / pageSize) : 0;
+
+    return new ProductResponse(content, pageNumber, pageSize, totalElements, totalPages, pageNumber + 1 >= totalPages);
+  }
+
+  private List<Map.Entry<Long, Double>> rank(List<String> queryTokens) {
+    Map<Long, Double> scores = null;
+    double averageLength = products.isEmpty() ? 1 : (double) totalDocumentLength / products.size();
+
+    for (int i = 0; i < queryTokens.size(); i++) {
+      Map<String, Double> matchingTerms = matchingTerms(queryTokens.get(i), i == queryTokens.size() - 1);
+
+      // a product matching several variants of one token keeps its best variant
+      Map<Long, Double> tokenScores = new HashMap<>();
+      matchingTerms.forEach((term, factor) -> {
+        Map<Long, Integer> posting = postings.get(term);
+        double idf = Math.log(1.0 + (products.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+        posting.forEach((productId, frequency) -> {
+          double lengthNorm = 1 - B + B * documentLengths.get(productId) / averageLength;
+          double score = factor * idf * frequency * (K1 + 1) / (frequency + K1 * lengthNorm);
+          tokenScores.merge(productId, score, Double::max);
+        });
+      });
+
+      if(scores == null){
+        scores = tokenScores;
+      }
+      else {
+        scores.keySet().retainAll(tokenScores.keySet());
+        scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+      }
+
+      if(scores.isEmpty()){
+        return List.of();
+      }
+    }
+
+    List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+    ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+    return ranked;
+  }
+
+  // exact term, then completions of the last token, then misspellings within the allowed edit distance
+  private Map<String, Double> matchingTerms(String token, boolean expandPrefix) {
+    Map<String, Double> matchingTerms = new HashMap<>();
+    if(postings.containsKey(token)){
+      matchingTerms.put(token, 1.0);
+    }
+
+    if(expandPrefix){
+      postings.subMap(token, false, token + Character.MAX_VALUE, true).keySet()
+        .forEach(term -> matchingTerms.put(term, PREFIX_MATCH_FACTOR));
+    }
+
+    if(!postings.containsKey(token)){
+      fuzzyMatches(token).forEach((term, distance) ->
+        matchingTerms.merge(term, Math.pow(FUZZY_MATCH_FACTOR, distance), Double::max));
+    }
+    return matchingTerms;
+  }
+
+  private Map<String, Integer> fuzzyMatches(String token) {
+    int maxEdits = maxEdits(token);
+    if(maxEdits == 0){
+      return Map.of();
+    }
+
+    Set<String> tokenTrigrams = trigramsOf(token);
+    Map<String, Integer> sharedTrigrams = new HashMap<>();
+    for (String trigram : tokenTrigrams) {
+      trigrams.getOrDefault(trigram, Set.of()).forEach(term -> sharedTrigrams.merge(term, 1, Integer::sum));
+    }
+
+    // one edit destroys at most three trigrams (four for a swap), so terms sharing fewer are out of reach
+    int minShared = Math.max(1, tokenTrigrams.size() - 4 * maxEdits);
+    Map<String, Integer> matches = new HashMap<>();
+    sharedTrigrams.forEach((term, shared) -> {
+      if(shared >= minShared){
+        int distance = editDistance(token, term, maxEdits);
+        if(distance <= maxEdits){
+          matches.put(term, distance);
+        }
+      }
+    });
+    return matches;
+  }
+
+  private void addInternal(IndexedProduct product) {
+    Map<String, Integer> terms = new HashMap<>();
+    tokenize(product.getProductName()).forEach(term -> terms.merge(term, NAME_WEIGHT, Integer::sum));
+    tokenize(product.getDescription()).forEach(term -> terms.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+
+    int length = terms.values().stream().mapToInt(Integer::intValue).sum();
+    products.put(product.getProductId(), product);
+    termsByProduct.put(product.getProductId(), terms);
+    documentLengths.put(product.getProductId(), length);
+    totalDocumentLength += length;
+
+    terms.forEach((term, frequency) -> {
+      Map<Long, Integer> posting = postings.get(term);
+      if(posting == null){
+        posting = new HashMap<>();
+        postings.put(term, posting);
+        trigramsOf(term).forEach(trigram -> trigrams.computeIfAbsent(trigram, key -> new HashSet<>()).add(term));
+      }
+      posting.put(product.getProductId(), frequency);
+    });
+  }
+
+  private void removeInternal(Long productId) {
+    products.remove(productId);
+    Integer length = documentLengths.remove(productId);
+    if(length != null){
+      totalDocumentLength -= length;
+    }
+
+    Map<String, Integer> terms = termsByProduct.remove(productId);
+    if(terms == null){
+      return;
+    }
+
+    terms.keySet().forEach(term -> {
+      Map<Long, Integer> posting = postings.get(term);
+      posting.remove(productId);
+      if(posting.isEmpty()){
+        postings.remove(term);
+        trigramsOf(term).forEach(trigram -> {
+          Set<String> termsWithTrigram = trigrams.get(trigram);
+          termsWithTrigram.remove(term);
+          if(termsWithTrigram.isEmpty()){
+            trigrams.remove(trigram);
+          }
+        });
+      }
+    });
+  }
+
+  private static int maxEdits(String token) {
+    if(token.length() < MIN_FUZZY_LENGTH){
+      return 0;
+    }
+    return token.length() < TWO_EDITS_LENGTH ? 1 : 2;
+  }
+
+  static Set<String> trigramsOf(String term) {
+    String padded = "$" + term + "$";
+    Set<String> result = new HashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      result.add(padded.substring(i, i + 3));
+    }
+    return result;
+  }
+
+  // optimal string alignment distance (insert, delete, substitute, swap adjacent), giving up once above max
+  static int editDistance(String a, String b, int max) {
+    if(Math.abs(a.length() - b.length()) > max){
+      return max + 1;
+    }
+
+    int[] twoBack = new int[b.length() + 1];
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      int rowMinimum = current[0];
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+        if(i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)){
+          distance = Math.min(distance, twoBack[j - 2] + 1);
+        }
+        current[j] = distance;
+        rowMinimum = Math.min(rowMinimum, distance);
+      }
+      if(rowMinimum > max){
+        return max + 1;
+      }
+
+      int[] recycled = twoBack;
+      twoBack = previous;
+      previous = current;
+      current = recycled;
+    }
+    return previous[b.length()];
+  }
+
+  static List<String> tokenize(String text) {
+    if(text == null || text.isBlank()){
+      return List.of();
+    }
+
+    List<String> tokens = new ArrayList<>();
+    for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if(!token.isEmpty()){
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+}
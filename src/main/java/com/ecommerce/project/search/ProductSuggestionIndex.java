@@ -0,0 +1,308 @@
+package com.ecommerce.project.search;
+
+import com.ecommerce.project.payload.ProductSuggestionDTO;
+import com.ecommerce.project.repository.OrderItemRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.service.ProductChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class ProductSuggestionIndex implements ProductChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+  private static final char[] NO_KEYS = new char[0];
+  private static final Node[] NO_CHILDREN = new Node[0];
+  private static final long[] NO_IDS = new long[0];
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private OrderItemRepository orderItemRepository;
+
+  @Value("${project.search.suggest.top-k}")
+  private int topK;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<Long, String> names = new HashMap<>();
+
+  private final Map<Long, Long> popularity = new HashMap<>();
+
+  private Node root = new Node();
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    List<IndexedProduct> allProducts = productRepository.findAllIndexedProducts();
+    List<Object[]> orderedQuantities = orderItemRepository.sumQuantitiesByProduct();
+
+    lock.writeLock().lock();
+    try {
+      names.clear();
+      popularity.clear();
+      root = new Node();
+
+      orderedQuantities.forEach(row -> popularity.put((Long) row[0], ((Number) row[1]).longValue()));
+      for (IndexedProduct product : allProducts) {
+        String key = normalize(product.getProductName());
+        if(key != null){
+          names.put(product.getProductId(), product.getProductName());
+          last(path(key, true)).addTerminal(product.getProductId());
+        }
+      }
+      recomputeAll(root);
+    } finally {
+      lock.writeLock().unlock();
+    }
+
+    logger.info("Product suggestion index built with {} names", names.size());
+  }
+
+  @Override
+  public void productSaved(IndexedProduct product) {
+    lock.writeLock().lock();
+    try {
+      String previous = names.get(product.getProductId());
+      if(previous != null && previous.equals(product.getProductName())){
+        return;
+      }
+
+      removeInternal(product.getProductId());
+      String key = normalize(product.getProductName());
+      if(key != null){
+        names.put(product.getProductId(), product.getProductName());
+        List<Node> path = path(key, true);
+        last(path).addTerminal(product.getProductId());
+        recomputePath(path);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void productRemoved(Long productId) {
+    lock.writeLock().lock();
+    try {
+      removeInternal(productId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  // popularity only counts once the order is committed, so rolled back checkouts do not skew suggestions
+  public void recordOrder(Long productId, int quantity) {
+    if(TransactionSynchronizationManager.isSynchronizationActive()){
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          addPopularity(productId, quantity);
+        }
+      });
+    }
+    else {
+      addPopularity(productId, quantity);
+    }
+  }
+
+  public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+    String key = prefix == null ? "" : prefix.toLowerCase(Locale.ROOT).stripLeading();
+
+    lock.readLock().lock();
+    try {
+      Node node = root;
+      for (int i = 0; i < key.length() && node != null; i++) {
+        node = node.child(key.charAt(i));
+      }
+      if(node == null){
+        return List.of();
+      }
+
+      int count = Math.min(limit, node.top.length);
+      List<ProductSuggestionDTO> suggestions = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        long productId = node.top[i];
+        suggestions.add(new ProductSuggestionDTO(productId, names.get(productId)));
+      }
+      return suggestions;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void addPopularity(Long productId, int quantity) {
+    lock.writeLock().lock();
+    try {
+      popularity.merge(productId, (long) quantity, Long::sum);
+      String name = names.get(productId);
+      if(name != null){
+        recomputePath(path(normalize(name), false));
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeInternal(Long productId) {
+    String name = names.remove(productId);
+    if(name == null){
+      return;
+    }
+
+    String key = normalize(name);
+    List<Node> path = path(key, false);
+    last(path).removeTerminal(productId);
+
+    for (int depth = key.length(); depth > 0; depth--) {
+      Node node = path.get(depth);
+      if(node.ids.length > 0 || node.keys.length > 0){
+        break;
+      }
+      path.get(depth - 1).removeChild(key.charAt(depth - 1));
+      path.remove(depth);
+    }
+    recomputePath(path);
+  }
+
+  // returns the nodes from the root to the node spelling the key, creating missing nodes when asked to
+  private List<Node> path(String key, boolean create) {
+    List<Node> path = new ArrayList<>(key.length() + 1);
+    Node node = root;
+    path.add(node);
+    for (int i = 0; i < key.length(); i++) {
+      Node child = node.child(key.charAt(i));
+      if(child == null){
+        if(!create){
+          break;
+        }
+        child = node.addChild(key.charAt(i));
+      }
+      node = child;
+      path.add(node);
+    }
+    return path;
+  }
+
+  private static Node last(List<Node> path) {
+    return path.get(path.size() - 1);
+  }
+
+  private void recomputePath(List<Node> path) {
+    for (int i = path.size() - 1; i >= 0; i--) {
+      recompute(path.get(i));
+    }
+  }
+
+  private void recomputeAll(Node node) {
+    for (Node child : node.children) {
+      recomputeAll(child);
+    }
+    recompute(node);
+  }
+
+  // a node's top list is the best k of its own products and its children's top lists
+  private void recompute(Node node) {
+    int candidateCount = node.ids.length;
+    for (Node child : node.children) {
+      candidateCount += child.top.length;
+    }
+
+    Long[] candidates = new Long[candidateCount];
+    int position = 0;
+    for (long id : node.ids) {
+      candidates[position++] = id;
+    }
+    for (Node child : node.children) {
+      for (long id : child.top) {
+        candidates[position++] = id;
+      }
+    }
+
+    Arrays.sort(candidates, ranking());
+    int size = Math.min(topK, candidateCount);
+    long[] top = new long[size];
+    for (int i = 0; i < size; i++) {
+      top[i] = candidates[i];
+    }
+    node.top = top;
+  }
+
+  private Comparator<Long> ranking() {
+    return Comparator.<Long>comparingLong(productId -> -popularity.getOrDefault(productId, 0L))
+      .thenComparingInt(productId -> names.get(productId).length())
+      .thenComparingLong(productId -> productId);
+  }
+
+  private static String normalize(String name) {
+    if(name == null || name.isBlank()){
+      return null;
+    }
+    return name.toLowerCase(Locale.ROOT).strip();
+  }
+
+  // children are kept in sorted parallel arrays rather than maps to keep per-node overhead small
+  private static final class Node {
+    private char[] keys = NO_KEYS;
+    private Node[] children = NO_CHILDREN;
+    private long[] ids = NO_IDS;
+    private long[] top = NO_IDS;
+
+    Node child(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      return index >= 0 ? children[index] : null;
+    }
+
+    Node addChild(char key) {
+      int index = -Arrays.binarySearch(keys, key) - 1;
+      char[] newKeys = new char[keys.length + 1];
+      Node[] newChildren = new Node[children.length + 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+      System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+
+      Node child = new Node();
+      newKeys[index] = key;
+      newChildren[index] = child;
+      keys = newKeys;
+      children = newChildren;
+      return child;
+    }
+
+    void removeChild(char key) {
+      int index = Arrays.binarySearch(keys, key);
+      if(index < 0){
+        return;
+      }
+      char[] newKeys = new char[keys.length - 1];
+      Node[] newChildren = new Node[children.length - 1];
+      System.arraycopy(keys, 0, newKeys, 0, index);
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+      System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+      keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+      children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+    }
+
+    void addTerminal(long productId) {
+      ids = Arrays.copyOf(ids, ids.length + 1);
+      ids[ids.length - 1] = productId;
+    }
+
+    void removeTerminal(long productId) {
+      long[] remaining = Arrays.stream(ids).filter(id -> id != productId).toArray();
+      ids = remaining.length == 0 ? NO_IDS : remaining;
+    }
+  }
+}
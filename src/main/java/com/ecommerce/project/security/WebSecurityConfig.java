@@ -1,5 +1,7 @@
 package com.ecommerce.project.security;
 
+import com.ecommerce.project.cache.UserCache;
+import com.ecommerce.project.config.RateLimitProperties;
 import com.ecommerce.project.model.AppRole;
 import com.ecommerce.project.model.Roles;
 import com.ecommerce.project.model.Users;
@@ -7,8 +9,14 @@ import com.ecommerce.project.repository.RoleRepository;
 import com.ecommerce.project.repository.UserRepository;
 import com.ecommerce.project.security.jwt.AuthEntryPointJwt;
 import com.ecommerce.project.security.jwt.AuthTokenFilter;
+import com.ecommerce.project.security.jwt.JwtUtils;
+import com.ecommerce.project.security.ratelimit.RateLimitFilter;
 import com.ecommerce.project.security.services.UserDetailsServiceImplementation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -43,10 +51,19 @@ public class WebSecurityConfig {
   @Autowired
   AuthEntryPointJwt unauthorizedHandler;
 
+  @Value("${project.auth.bcrypt-strength}")
+  private int bcryptStrength;
+
   @Bean
   public AuthTokenFilter authenticationJwtTokenFilter(){
     return new AuthTokenFilter();
   }
+
+  @Bean
+  public RateLimitFilter rateLimitFilter(RateLimitProperties rateLimitProperties, JwtUtils jwtUtils,
+                                         ObjectMapper objectMapper, MeterRegistry meterRegistry){
+    return new RateLimitFilter(rateLimitProperties, jwtUtils, objectMapper, meterRegistry);
+  }
   @Bean
   public DaoAuthenticationProvider authenticationProvider(){
     DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
@@ -60,7 +77,7 @@ public class WebSecurityConfig {
 
 
   @Bean
-  public SecurityFilterChain filterChain (HttpSecurity http) throws Exception{
+  public SecurityFilterChain filterChain (HttpSecurity http, RateLimitFilter rateLimitFilter) throws Exception{
     http.csrf(AbstractHttpConfigurer::disable)
 
       .exceptionHandling(exception-> exception.authenticationEntryPoint(
@@ -68,7 +85,10 @@ public class WebSecurityConfig {
       .sessionManagement(session -> session.sessionCreationPolicy(
         SessionCreationPolicy.STATELESS))
       .authorizeHttpRequests(auth ->
-          auth.requestMatchers("/api/auth/**").permitAll()
+          // streamed responses (product export, cart stream) finish on an async dispatch that carries no JWT,
+          // the request itself was already authorized
+          auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+            .requestMatchers("/api/auth/**").permitAll()
             .requestMatchers("/v3/api-docs/**").permitAll()
             .requestMatchers("/h2-console/**").permitAll()
             //.requestMatchers("/api/admin/**").permitAll()
@@ -84,6 +104,8 @@ public class WebSecurityConfig {
     http.addFilterBefore(authenticationJwtTokenFilter(),
       UsernamePasswordAuthenticationFilter.class);
 
+    http.addFilterBefore(rateLimitFilter, AuthTokenFilter.class);
+
     http.headers(headers-> headers.frameOptions(
       HeadersConfigurer.FrameOptionsConfig::sameOrigin
     ));
@@ -105,7 +127,8 @@ public class WebSecurityConfig {
 
 
   @Bean
-  public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+  public CommandLineRunner initData(RoleRepository roleRepository, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                    UserCache userCache) {
     return args -> {
       Roles userRole = roleRepository.findByRoleName(AppRole.ROLE_USER)
         .orElseGet(() -> {
@@ -150,23 +173,26 @@ public class WebSecurityConfig {
       userRepository.findByUserName("user1").ifPresent(user -> {
         user.setRolesInUsers(userRoles);
         userRepository.save(user);
+        userCache.evict(user.getId());
       });
 
       userRepository.findByUserName("seller1").ifPresent(seller -> {
         seller.setRolesInUsers(sellerRoles);
         userRepository.save(seller);
+        userCache.evict(seller.getId());
       });
 
       userRepository.findByUserName("admin").ifPresent(admin -> {
         admin.setRolesInUsers(adminRoles);
         userRepository.save(admin);
+        userCache.evict(admin.getId());
       });
     };
   }
 
   @Bean
   public PasswordEncoder passwordEncoder(){
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(bcryptStrength);
   }
 
   @Bean
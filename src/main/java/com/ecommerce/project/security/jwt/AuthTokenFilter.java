@@ -1,5 +1,6 @@
 package com.ecommerce.project.security.jwt;
 
+import io.jsonwebtoken.Claims;
 import jakarta.annotation.Nonnull;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,6 +24,9 @@ public class AuthTokenFilter extends OncePerRequestFilter {
   @Autowired
   private JwtUtils jwtUtils;
 
+  @Autowired
+  private TokenRevocationList tokenRevocationList;
+
   @Autowired
 
   private UserDetailsService userDetailsService;
@@ -37,11 +41,16 @@ public class AuthTokenFilter extends OncePerRequestFilter {
 
     try {
       String jwtToken = parseJwtToken(request);
-      if(jwtToken!=null && jwtUtils.validateJwtToken(jwtToken)){
-        String username = jwtUtils.getUsernameFromJwtToken(jwtToken);
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
+      Claims claims = jwtToken != null ? jwtUtils.getVerifiedClaims(jwtToken) : null;
+      if(claims != null && tokenRevocationList.isRevoked(claims.getId())){
+        logger.debug("Rejected revoked JWT {}", claims.getId());
+        claims = null;
+      }
+      if(claims != null){
+        UserDetails userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+        if(userDetails == null){
+          userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        }
 
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails,
           null, userDetails.getAuthorities());
@@ -1,31 +1,48 @@
 package com.ecommerce.project.security.jwt;
 
 import com.ecommerce.project.security.services.UserDetailsImplementation;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.WebUtils;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
-import java.util.Date;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 @Component
 public class JwtUtils {
 
   private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+  public static final String CLAIM_USER_ID = "uid";
+  public static final String CLAIM_EMAIL = "email";
+  public static final String CLAIM_ROLES = "roles";
+
   @Value("${spring.app.jwtSecret}")
   private String jwtSecret;
 
@@ -35,6 +52,38 @@ public class JwtUtils {
   @Value("${spring.app.jwtCookie}")
   private String jwtCookie;
 
+  @Value("${project.jwt.verified-cache-size}")
+  private int verifiedCacheSize;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry;
+
+  private SecretKey key;
+
+  private JwtParser parser;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  // SHA-256 of the token -> claims already verified, so a repeated cookie skips the HMAC check until it expires.
+  // Every authenticated request reads it, so it is a concurrent map; once it is full one thread at a time sweeps
+  // out expired tokens and, if that is not enough, drops arbitrary ones down to 90% of the bound
+  private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+  private final AtomicBoolean sweeping = new AtomicBoolean();
+
+  @PostConstruct
+  public void init() {
+    key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    parser = Jwts.parser().verifyWith(key).build();
+
+    if(meterRegistry != null){
+      FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+        .tag("cache", "jwt").tag("result", "hit").register(meterRegistry);
+      FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+        .tag("cache", "jwt").tag("result", "miss").register(meterRegistry);
+    }
+  }
+
   public String getJwtFromHeader(HttpServletRequest request){
     String bearToken = request.getHeader("Authentication");
     logger.debug("Authorization Header {}: ", bearToken);
@@ -49,7 +98,6 @@ public class JwtUtils {
   public String getJwtFromCookies(HttpServletRequest request){
     Cookie cookie = WebUtils.getCookie(request, jwtCookie);
     if(cookie!=null){
-      System.out.println("Cookie: "+cookie);
       return cookie.getValue();
     }
     else{
@@ -58,7 +106,7 @@ public class JwtUtils {
   }
 
   public ResponseCookie generateJwtCookie(UserDetailsImplementation userPrinciple){
-    String jwt = generateTokenFromUsername(userPrinciple.getUsername());
+    String jwt = generateTokenFromUsername(userPrinciple);
     return ResponseCookie.from(jwtCookie, jwt).path("/api").
       maxAge(24*60*60)
       .httpOnly(false)
@@ -71,46 +119,130 @@ public class JwtUtils {
       .build();
   }
 
-  public String generateTokenFromUsername(String username) {
+  public String generateTokenFromUsername(UserDetailsImplementation userPrinciple) {
+    List<String> roles = userPrinciple.getAuthorities().stream()
+      .map(GrantedAuthority::getAuthority)
+      .toList();
 
     return Jwts.builder()
-      .subject(username)
+      .id(UUID.randomUUID().toString())
+      .subject(userPrinciple.getUsername())
+      .claim(CLAIM_USER_ID, userPrinciple.getId())
+      .claim(CLAIM_EMAIL, userPrinciple.getEmail())
+      .claim(CLAIM_ROLES, roles)
       .issuedAt(new Date())
       .expiration(new Date(new Date().getTime()+jwtExpirationMs))
-      .signWith(key())
+      .signWith(key)
       .compact();
   }
 
-  private Key key() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-  }
-
   public String getUsernameFromJwtToken(String token){
-    return Jwts.parser()
-      .verifyWith((SecretKey) key())
-      .build()
-      .parseSignedClaims(token)
-      .getPayload()
-      .getSubject();
+    Claims claims = getVerifiedClaims(token);
+    return claims == null ? null : claims.getSubject();
   }
 
   public boolean validateJwtToken(String authToken){
+    return getVerifiedClaims(authToken) != null;
+  }
+
+  // verifies the signature and expiry once and returns the claims, or null when the token is not acceptable
+  public Claims getVerifiedClaims(String token){
+    if(token == null || token.isEmpty()){
+      logger.error("JWT claim String is Empty");
+      return null;
+    }
+
+    String tokenHash = hash(token);
+    long now = System.currentTimeMillis();
+    VerifiedToken verified = verifiedTokens.get(tokenHash);
+    if(verified != null){
+      if(verified.expiresAt > now){
+        hits.increment();
+        return verified.claims;
+      }
+      verifiedTokens.remove(tokenHash, verified);
+    }
+    misses.increment();
+
+    Claims claims;
     try {
-      System.out.println("Validate");
-      Jwts.parser()
-        .verifyWith((SecretKey) key())
-        .build()
-        .parseSignedClaims(authToken);
-      return true;
+      claims = parser.parseSignedClaims(token).getPayload();
     } catch (MalformedJwtException malformedJwtException){
       logger.error("Invalid JWT Token: {}", malformedJwtException.getMessage());
+      return null;
     } catch (ExpiredJwtException expiredJwtException){
       logger.error("JWT Token is Expired: {}", expiredJwtException.getMessage());
+      return null;
     } catch (UnsupportedJwtException unsupportedJwtException){
       logger.error("JWT Token is Unsupported: {}", unsupportedJwtException.getMessage());
+      return null;
+    } catch (SignatureException signatureException){
+      logger.error("JWT Signature is Invalid: {}", signatureException.getMessage());
+      return null;
     } catch (IllegalArgumentException illegalArgumentException){
       logger.error("JWT claim String is Empty: {}", illegalArgumentException.getMessage());
+      return null;
+    }
+
+    if(claims.getExpiration() != null && verifiedCacheSize > 0){
+      if(verifiedTokens.size() >= verifiedCacheSize){
+        sweepVerifiedTokens(now);
+      }
+      if(verifiedTokens.size() < verifiedCacheSize){
+        verifiedTokens.put(tokenHash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+      }
+    }
+    return claims;
+  }
+
+  // threads that lose the race skip caching their token rather than wait for the sweep
+  private void sweepVerifiedTokens(long now) {
+    if(!sweeping.compareAndSet(false, true)){
+      return;
+    }
+    try {
+      verifiedTokens.values().removeIf(token -> token.expiresAt <= now);
+      Iterator<String> tokenHashes = verifiedTokens.keySet().iterator();
+      int target = verifiedCacheSize - verifiedCacheSize / 10 - 1;
+      while (verifiedTokens.size() > target && tokenHashes.hasNext()) {
+        tokenHashes.next();
+        tokenHashes.remove();
+      }
+    } finally {
+      sweeping.set(false);
     }
-    return false;
+  }
+
+  // tokens issued before the identity claims were added return null and need a lookup by username
+  public UserDetailsImplementation getUserDetailsFromClaims(Claims claims){
+    Long userId = claims.get(CLAIM_USER_ID, Long.class);
+    if(userId == null){
+      return null;
+    }
+
+    List<?> roles = claims.get(CLAIM_ROLES, List.class);
+    List<GrantedAuthority> authorities = roles == null ? List.of() : roles.stream()
+      .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+      .toList();
+
+    return new UserDetailsImplementation(userId, claims.getSubject(), claims.get(CLAIM_EMAIL, String.class),
+      null, authorities);
+  }
+
+  public UserDetailsImplementation getUserDetailsFromJwtToken(String token){
+    Claims claims = getVerifiedClaims(token);
+    return claims == null ? null : getUserDetailsFromClaims(claims);
+  }
+
+  private static String hash(String token) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private record VerifiedToken(Claims claims, long expiresAt) {
   }
 }
@@ -0,0 +1,186 @@
+package com.ecommerce.project.security.jwt;
+
+import com.ecommerce.project.model.RevokedToken;
+import com.ecommerce.project.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// revoked token ids (jti) shared through the revoked_tokens table; every request is checked against a Bloom
+// filter first, so the common not-revoked case costs a few bit reads, and only possible hits consult the exact set
+@Component
+public class TokenRevocationList {
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  // rows are pulled from slightly before the last sync so clock skew between nodes cannot hide a revocation
+  private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+  @Autowired
+  private RevokedTokenRepository revokedTokenRepository;
+
+  @Value("${project.jwt.revocation.expected-entries}")
+  private int expectedEntries;
+
+  private volatile Snapshot snapshot;
+
+  private Instant lastSync = Instant.EPOCH;
+
+  @PostConstruct
+  public void init() {
+    snapshot = new Snapshot(expectedEntries);
+  }
+
+  public boolean isRevoked(String tokenId) {
+    if(tokenId == null){
+      return false;
+    }
+
+    Snapshot current = snapshot;
+    if(!current.mightContain(hash(tokenId))){
+      return false;
+    }
+    Long expiresAt = current.expiries.get(tokenId);
+    return expiresAt != null && expiresAt > System.currentTimeMillis();
+  }
+
+  public void revoke(String tokenId, Instant expiresAt) {
+    revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, Instant.now()));
+    synchronized (this) {
+      add(tokenId, expiresAt.toEpochMilli());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${project.jwt.revocation.sync-interval-ms}",
+    initialDelayString = "${project.jwt.revocation.sync-interval-ms}")
+  public void sync() {
+    Instant now = Instant.now();
+    Instant since;
+    synchronized (this) {
+      since = lastSync.minus(SYNC_OVERLAP);
+    }
+
+    List<RevokedToken> revokedTokens = revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now);
+
+    synchronized (this) {
+      revokedTokens.forEach(revokedToken -> add(revokedToken.getTokenId(), revokedToken.getExpiresAt().toEpochMilli()));
+      lastSync = now;
+    }
+  }
+
+  // Bloom filters cannot forget, so expired ids are dropped by rebuilding the filter from the live rows
+  @EventListener(ApplicationReadyEvent.class)
+  @Scheduled(fixedDelayString = "${project.jwt.revocation.rebuild-interval-ms}",
+    initialDelayString = "${project.jwt.revocation.rebuild-interval-ms}")
+  public void rebuild() {
+    Instant now = Instant.now();
+    int deleted = revokedTokenRepository.deleteExpired(now);
+    List<RevokedToken> revokedTokens = revokedTokenRepository.findByExpiresAtAfter(now);
+
+    synchronized (this) {
+      Map<String, Long> entries = new ConcurrentHashMap<>();
+      revokedTokens.forEach(revokedToken -> entries.put(revokedToken.getTokenId(), revokedToken.getExpiresAt().toEpochMilli()));
+      // keep revocations made on this node while the rows were being read
+      snapshot.expiries.forEach((tokenId, expiresAt) -> {
+        if(expiresAt > now.toEpochMilli()){
+          entries.putIfAbsent(tokenId, expiresAt);
+        }
+      });
+      snapshot = Snapshot.of(entries, expectedEntries);
+      lastSync = now;
+    }
+
+    logger.info("Token revocation list rebuilt with {} entries, {} expired rows removed", revokedTokens.size(), deleted);
+  }
+
+  public int size() {
+    return snapshot.expiries.size();
+  }
+
+  private void add(String tokenId, long expiresAt) {
+    Snapshot current = snapshot;
+    if(current.expiries.size() >= current.capacity){
+      current = Snapshot.of(current.expiries, current.capacity * 2);
+    }
+    current.put(tokenId, expiresAt);
+    snapshot = current;
+  }
+
+  // FNV-1a over the characters followed by a MurmurHash3 finaliser, computed without allocating
+  private static long hash(String tokenId) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < tokenId.length(); i++) {
+      hash ^= tokenId.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+
+  private static final class Snapshot {
+    private final int capacity;
+    private final int bitCount;
+    private final int hashCount;
+    private final AtomicLongArray bits;
+    private final Map<String, Long> expiries = new ConcurrentHashMap<>();
+
+    Snapshot(int capacity) {
+      this.capacity = Math.max(capacity, 1);
+      this.bitCount = (int) Math.max(64, Math.ceil(-this.capacity * Math.log(FALSE_POSITIVE_RATE) / (Math.log(2) * Math.log(2))));
+      this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.capacity * Math.log(2)));
+      this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    static Snapshot of(Map<String, Long> entries, int minimumCapacity) {
+      Snapshot snapshot = new Snapshot(Math.max(minimumCapacity, entries.size() * 2));
+      entries.forEach(snapshot::put);
+      return snapshot;
+    }
+
+    // the exact entry is written before the bits so a reader that sees the bits also finds the entry
+    void put(String tokenId, long expiresAt) {
+      expiries.put(tokenId, expiresAt);
+      long hash = hash(tokenId);
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < hashCount; i++) {
+        int bit = index(h1 + i * h2);
+        bits.getAndAccumulate(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+      }
+    }
+
+    boolean mightContain(long hash) {
+      int h1 = (int) hash;
+      int h2 = (int) (hash >>> 32);
+      for (int i = 0; i < hashCount; i++) {
+        int bit = index(h1 + i * h2);
+        if((bits.get(bit >>> 6) & (1L << bit)) == 0){
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int index(int combined) {
+      return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+  }
+}
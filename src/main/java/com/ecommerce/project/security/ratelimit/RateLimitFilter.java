@@ -0,0 +1,119 @@
+package com.ecommerce.project.security.ratelimit;
+
+import com.ecommerce.project.config.RateLimitProperties;
+import com.ecommerce.project.payload.APIResponse;
+import com.ecommerce.project.security.jwt.JwtUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nonnull;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// runs ahead of AuthTokenFilter; clients are identified by the user id in a valid JWT cookie, otherwise by the
+// remote address (set server.forward-headers-strategy when running behind a proxy so that address is the client's)
+public class RateLimitFilter extends OncePerRequestFilter {
+  private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+  private final RateLimitProperties properties;
+  private final JwtUtils jwtUtils;
+  private final ObjectMapper objectMapper;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  private final List<RouteRateLimiter> limiters;
+  private final List<Counter> rejectedCounters;
+
+  public RateLimitFilter(RateLimitProperties properties, JwtUtils jwtUtils, ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.jwtUtils = jwtUtils;
+    this.objectMapper = objectMapper;
+    this.limiters = properties.getRoutes().entrySet().stream()
+      .map(route -> new RouteRateLimiter(route.getKey(), route.getValue(), properties.getMaxClientsPerRoute(),
+        properties.getIdleTimeoutMs()))
+      .toList();
+    this.rejectedCounters = limiters.stream()
+      .map(limiter -> Counter.builder("http.ratelimit.rejected")
+        .tag("route", limiter.getName())
+        .register(meterRegistry))
+      .toList();
+
+    limiters.forEach(limiter -> Gauge.builder("http.ratelimit.clients", limiter, RouteRateLimiter::size)
+      .tag("route", limiter.getName())
+      .register(meterRegistry));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, @Nonnull HttpServletResponse response,
+                                  @Nonnull FilterChain filterChain) throws ServletException, IOException {
+    if(properties.isEnabled()){
+      int index = matchingRoute(request);
+      if(index >= 0){
+        RouteRateLimiter limiter = limiters.get(index);
+        long wait = limiter.acquire(clientKey(request), System.nanoTime());
+        if(wait > 0){
+          rejectedCounters.get(index).increment();
+          logger.debug("Rate limit {} exceeded for {}", limiter.getName(), request.getRequestURI());
+          reject(response, wait);
+          return;
+        }
+      }
+    }
+
+    filterChain.doFilter(request, response);
+  }
+
+  @Scheduled(fixedDelayString = "${project.rate-limit.idle-timeout-ms}")
+  public void evictIdleClients() {
+    long now = System.nanoTime();
+    limiters.forEach(limiter -> limiter.evictIdle(now));
+  }
+
+  private int matchingRoute(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    for (int i = 0; i < limiters.size(); i++) {
+      RateLimitProperties.Route route = limiters.get(i).getRoute();
+      if((route.getMethod() == null || route.getMethod().equalsIgnoreCase(request.getMethod()))
+        && pathMatcher.match(route.getPattern(), path)){
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private String clientKey(HttpServletRequest request) {
+    String jwtToken = jwtUtils.getJwtFromCookies(request);
+    if(jwtToken != null){
+      Claims claims = jwtUtils.getVerifiedClaims(jwtToken);
+      Object userId = claims != null ? claims.get(JwtUtils.CLAIM_USER_ID) : null;
+      if(userId != null){
+        return "user:" + userId;
+      }
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+    long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(), new APIResponse("Too many requests, please retry later", false));
+  }
+}
@@ -0,0 +1,91 @@
+package com.ecommerce.project.security.ratelimit;
+
+import com.ecommerce.project.config.RateLimitProperties;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// a token bucket per client implemented as GCRA: each client is a single "theoretical arrival time" updated
+// with compare-and-set, so acquiring never locks and a full bucket is just a value at or before now
+class RouteRateLimiter {
+  private static final long UNSEEN = Long.MIN_VALUE;
+  private static final long INLINE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final String name;
+  private final RateLimitProperties.Route route;
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final long idleTimeoutNanos;
+  private final int maxClients;
+
+  private final ConcurrentHashMap<String, AtomicLong> clients = new ConcurrentHashMap<>();
+
+  // shared by clients that arrive while the map is full, so a flood of new addresses cannot bypass the limit
+  private final AtomicLong overflow = new AtomicLong(UNSEEN);
+
+  // a full map is swept on a request thread at most once per interval, whichever thread wins the compare-and-set;
+  // every other new client in the meantime goes straight to the overflow bucket
+  private final AtomicLong lastSweep;
+
+  RouteRateLimiter(String name, RateLimitProperties.Route route, int maxClients, long idleTimeoutMs) {
+    this.name = name;
+    this.route = route;
+    this.emissionIntervalNanos = (long) (TimeUnit.MINUTES.toNanos(1) / route.getRefillPerMinute());
+    this.burstToleranceNanos = emissionIntervalNanos * (Math.max(route.getCapacity(), 1) - 1);
+    this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+    this.maxClients = maxClients;
+    this.lastSweep = new AtomicLong(System.nanoTime());
+  }
+
+  String getName() {
+    return name;
+  }
+
+  RateLimitProperties.Route getRoute() {
+    return route;
+  }
+
+  // returns 0 when the request may proceed, otherwise the nanoseconds until it would be allowed
+  long acquire(String client, long now) {
+    AtomicLong arrival = clients.get(client);
+    if(arrival == null){
+      if(clients.size() >= maxClients){
+        long sweptAt = lastSweep.get();
+        if(now - sweptAt >= INLINE_SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(sweptAt, now)){
+          sweep(now);
+        }
+      }
+      arrival = clients.size() < maxClients ? clients.computeIfAbsent(client, key -> new AtomicLong(UNSEEN)) : overflow;
+    }
+
+    while (true) {
+      long current = arrival.get();
+      long theoretical = current == UNSEEN ? now : Math.max(current, now);
+      long wait = theoretical - burstToleranceNanos - now;
+      if(wait > 0){
+        return wait;
+      }
+      if(arrival.compareAndSet(current, theoretical + emissionIntervalNanos)){
+        return 0;
+      }
+    }
+  }
+
+  // an entry whose arrival time has passed is a full bucket, identical to a fresh one, so dropping it loses nothing
+  void evictIdle(long now) {
+    lastSweep.set(now);
+    sweep(now);
+  }
+
+  private void sweep(long now) {
+    clients.values().removeIf(arrival -> {
+      long current = arrival.get();
+      return current == UNSEEN || current < now - idleTimeoutNanos;
+    });
+  }
+
+  int size() {
+    return clients.size();
+  }
+}
@@ -1,12 +1,12 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.exception.APIException;
+import com.ecommerce.project.mapper.AddressMapper;
 import com.ecommerce.project.model.Address;
 import com.ecommerce.project.model.Users;
 import com.ecommerce.project.payload.AddressDTO;
 import com.ecommerce.project.repository.AddressRepository;
 import com.ecommerce.project.repository.UserRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,7 +16,7 @@ import java.util.List;
 public class AddressServiceImplementation implements AddressService{
 
   @Autowired
-  ModelMapper modelMapper;
+  AddressMapper addressMapper;
 
   @Autowired
   AddressRepository addressRepository;
@@ -26,15 +26,11 @@ public class AddressServiceImplementation implements AddressService{
 
   @Override
   public AddressDTO createAddress(AddressDTO addressDTO, Users user) {
-    Address address = modelMapper.map(addressDTO, Address.class);
-    List<Address> addresses = user.getAddressesInUsers();
-    addresses.add(address);
-    user.setAddressesInUsers(addresses);
-
+    Address address = addressMapper.toAddress(addressDTO);
     address.setUsers(user);
     addressRepository.save(address);
 
-    return modelMapper.map(address, AddressDTO.class);
+    return addressMapper.toAddressDTO(address);
   }
 
   @Override
@@ -45,8 +41,7 @@ public class AddressServiceImplementation implements AddressService{
       throw new APIException("No addresses found");
     }
 
-    return addresses.stream().map(address -> modelMapper.map(
-      address, AddressDTO.class)).toList();
+    return addresses.stream().map(address -> addressMapper.toAddressDTO(address)).toList();
   }
 
   @Override
@@ -55,23 +50,19 @@ public class AddressServiceImplementation implements AddressService{
       () -> new APIException("No address found with id: " + addressId)
     );
 
-    return modelMapper.map(address, AddressDTO.class);
+    return addressMapper.toAddressDTO(address);
   }
 
   @Override
   public List<AddressDTO> getAddressByUser(Users user) {
-    Users savedUser = userRepository.findById(user.getId()).orElseThrow(
-      () -> new APIException("No user found with id: " + user.getId())
-    );
-
-    List<Address> addresses = savedUser.getAddressesInUsers();
+    List<Address> addresses = addressRepository.findByUsersId(user.getId());
 
     if(addresses.isEmpty()){
       throw new APIException("No addresses found");
     }
 
     return addresses.stream().map(
-      address -> modelMapper.map(address, AddressDTO.class)
+      address -> addressMapper.toAddressDTO(address)
     ).toList();
   }
 
@@ -96,7 +87,7 @@ public class AddressServiceImplementation implements AddressService{
     user.getAddressesInUsers().add(updatedAddress);
     userRepository.save(user);
 
-    return modelMapper.map(updatedAddress, AddressDTO.class);
+    return addressMapper.toAddressDTO(updatedAddress);
   }
 
   @Override
@@ -109,7 +100,7 @@ public class AddressServiceImplementation implements AddressService{
     user.getAddressesInUsers().removeIf(addresses -> addresses.getId().equals(addressId));
     userRepository.save(user);
 
-    AddressDTO addressDTO = modelMapper.map(address, AddressDTO.class);
+    AddressDTO addressDTO = addressMapper.toAddressDTO(address);
 
     addressRepository.delete(address);
 
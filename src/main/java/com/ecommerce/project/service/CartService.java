@@ -1,21 +1,39 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartOperationDTO;
+import com.ecommerce.project.payload.CartSliceResponse;
+import com.ecommerce.project.payload.CartSummaryDTO;
 import jakarta.transaction.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 
 public interface CartService {
   CartDTO addProductToCart(Long productId, Integer quantity);
 
-  List<CartDTO> getAllCarts();
+  CartDTO applyCartOperations(List<CartOperationDTO> operations);
+
+  CartSliceResponse getCartsAfter(String after, Integer pageSize, boolean nonEmpty, Instant updatedSince);
+
+  void streamCarts(OutputStream outputStream, boolean nonEmpty, Instant updatedSince) throws IOException;
 
   CartDTO getCart(String emailId, Long cartId);
 
+  CartDTO getUserCart(Long userId);
+
+  CartSummaryDTO getCartSummary(Long userId);
+
   String deleteProductFromCart(Long cartId, Long productId);
 
   @Transactional
   CartDTO updateProductQuantityInCart(Long productId, Integer quantity);
 
   void updateProductInCarts(Long cartId, Long productId);
+
+  int repriceProductInCarts(Long productId, double productPrice);
+
+  void repriceProductInCartsAsync(Long productId, double productPrice);
 }
@@ -1,49 +1,108 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.CartCache;
+import com.ecommerce.project.cache.ProductCache;
 import com.ecommerce.project.exception.APIException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.mapper.CartMapper;
 import com.ecommerce.project.model.Cart;
 import com.ecommerce.project.model.CartItem;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.CartOperationDTO;
+import com.ecommerce.project.payload.CartSliceResponse;
+import com.ecommerce.project.payload.CartSummaryDTO;
 import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.repository.CartItemRepository;
 import com.ecommerce.project.repository.CartRepository;
 import com.ecommerce.project.repository.ProductRepository;
 import com.ecommerce.project.utils.AuthUtil;
+import com.ecommerce.project.utils.KeysetCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-
-import java.util.List;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Service
 public class CartServiceImplementation implements CartService{
+  private static final Logger logger = LoggerFactory.getLogger(CartServiceImplementation.class);
+
+  private static final String INSERT_CART_ITEM = "INSERT INTO cart_items " +
+    "(cart_id, product_id, quantity, discount, product_price, reserved_until) VALUES (?, ?, ?, ?, ?, ?)";
+
+  private static final Map<String, Class<?>> SCROLLABLE_FIELDS = Map.of("cartId", Long.class);
+
+  private static final String UPDATE_CART_ITEM = "UPDATE cart_items " +
+    "SET quantity = ?, discount = ?, product_price = ?, reserved_until = ? WHERE cart_item_id = ?";
+
   @Autowired
   private CartRepository cartRepository;
 
+  @Autowired
+  private AuthUtil authUtil;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
   @Autowired
   private ProductRepository productRepository;
 
   @Autowired
-  private AuthUtil authUtil;
+  private JdbcTemplate jdbcTemplate;
 
   @Autowired
-  private CartItemRepository cartItemRepository;
+  private CartMapper cartMapper;
+
+  @Autowired
+  private ProductCache productCache;
 
   @Autowired
-  private ModelMapper modelMapper;
+  private CartCache cartCache;
 
+  @Autowired
+  private InventoryReservationService inventoryReservationService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${project.cart.reprice-chunk-size}")
+  private int repriceChunkSize;
+
+  @Value("${project.cart.listing-page-size}")
+  private int listingPageSize;
+
+  @Transactional
   @Override
   public CartDTO addProductToCart(Long productId, Integer quantity) {
+    if(quantity == null || quantity <= 0){
+      throw new APIException("Quantity must be greater than zero");
+    }
 
+    Long userId = authUtil.loggedInUserId();
+    CartCache.Generation cacheGeneration = cartCache.generation(userId);
     Cart cart = createCart();
 
 
-    Product product = productRepository.findById(productId)
+    Product product = productCache.findById(productId)
       .orElseThrow(() -> new ResourceNotFoundException("Product", "productID", productId));
 
 
@@ -52,11 +111,7 @@ public class CartServiceImplementation implements CartService{
       throw new APIException("Product "+ product.getProductName() +" is already in the cart");
     }
 
-    if(product.getQuantity()==0){
-      throw new APIException(product.getProductName() +" is not available");
-    }
-
-    if(product.getQuantity()<quantity){
+    if(!inventoryReservationService.reserve(productId, quantity)){
       throw new APIException(product.getProductName() +" is out of stock");
     }
 
@@ -66,52 +121,155 @@ public class CartServiceImplementation implements CartService{
     newCartItem.setCart(cart);
     newCartItem.setQuantity(quantity);
     newCartItem.setDiscount(product.getDiscount());
-    newCartItem.setProductPrice(product.getPrice());
+    newCartItem.setProductPrice(product.getSpacialPrice());
+    newCartItem.setReservedUntil(inventoryReservationService.reservationDeadline());
 
 
     cartItemRepository.save(newCartItem);
+    inventoryReservationService.trackReservation(newCartItem.getCartItemId(), newCartItem.getReservedUntil());
 
-    product.setQuantity(product.getQuantity()-quantity);
     cart.setTotalPrice(cart.getTotalPrice()+(product.getSpacialPrice()*quantity));
     cartRepository.save(cart);
 
-    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+    return writeThrough(userId, cacheGeneration);
+  }
 
-    List<CartItem> cartItems = cart.getCartItems();
+  // the batch is first played against the cart's current lines in memory, so several operations on one product
+  // collapse into a single change; stock is then reserved or released once per changed product and the lines and
+  // the total are written in bulk
+  @Transactional
+  @Override
+  public CartDTO applyCartOperations(List<CartOperationDTO> operations) {
+    Long userId = authUtil.loggedInUserId();
+    CartCache.Generation cacheGeneration = cartCache.generation(userId);
+    Cart cart = createCart();
 
-    Stream<ProductDTO> producStream = cartItems.stream().map(cartsItem->{
-      ProductDTO productDTO = modelMapper.map(cartsItem, ProductDTO.class);
-      productDTO.setQuantity(cartsItem.getQuantity());
+    Map<Long, Object[]> currentLines = new LinkedHashMap<>();
+    cartItemRepository.findProductQuantitiesByCartId(cart.getCartId()).forEach(line -> currentLines.put((Long) line[0], line));
+
+    Set<Long> productIds = new LinkedHashSet<>(currentLines.keySet());
+    operations.forEach(operation -> productIds.add(operation.getProductId()));
+    Map<Long, ProductDTO> products = productRepository.findProductDTOsByProductIdIn(productIds).stream()
+      .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+
+    Map<Long, Integer> quantities = new LinkedHashMap<>();
+    currentLines.forEach((productId, line) -> quantities.put(productId, (Integer) line[1]));
+    operations.forEach(operation -> applyOperation(operation, products, quantities));
+
+    Instant reservedUntil = inventoryReservationService.reservationDeadline();
+    List<Object[]> inserts = new ArrayList<>();
+    List<Object[]> updates = new ArrayList<>();
+    List<Long> removedCartItemIds = new ArrayList<>();
+    Set<Long> changedProductIds = new HashSet<>();
+    double totalPriceChange = 0;
+
+    for (Long productId : productIds) {
+      Object[] currentLine = currentLines.get(productId);
+      int before = currentLine == null ? 0 : (Integer) currentLine[1];
+      int after = quantities.getOrDefault(productId, 0);
+      if(before == after){
+        continue;
+      }
 
-      return productDTO;
-    });
+      ProductDTO product = products.get(productId);
+      int change = after - before;
+      if(change > 0 && !inventoryReservationService.reserve(productId, change)){
+        throw new APIException(product.getProductName() + " is out of stock");
+      }
+      if(change < 0){
+        inventoryReservationService.release(productId, -change);
+      }
+      // the whole line is rewritten at the current price, so the total drops what the line was recorded at
+      double linePrice = currentLine == null ? 0 : (Double) currentLine[3];
+      totalPriceChange += after * product.getSpacialPrice() - before * linePrice;
+      changedProductIds.add(productId);
+
+      if(currentLine == null){
+        inserts.add(new Object[]{productId, after, product.getDiscount(), product.getSpacialPrice()});
+      }
+      else if(after == 0){
+        removedCartItemIds.add((Long) currentLine[2]);
+      }
+      else {
+        updates.add(new Object[]{currentLine[2], after, product.getDiscount(), product.getSpacialPrice()});
+      }
+    }
+
+    writeCartItems(cart.getCartId(), inserts, updates, reservedUntil);
+    if(!removedCartItemIds.isEmpty()){
+      cartItemRepository.deleteByCartItemIdIn(removedCartItemIds);
+    }
+    if(totalPriceChange != 0){
+      cartRepository.addToTotalPrice(cart.getCartId(), totalPriceChange, Instant.now());
+    }
+
+    removedCartItemIds.forEach(inventoryReservationService::untrackReservation);
+    List<ProductDTO> cartProducts = new ArrayList<>(quantities.size());
+    for (Object[] line : cartItemRepository.findProductQuantitiesByCartId(cart.getCartId())) {
+      Long productId = (Long) line[0];
+      if(changedProductIds.contains(productId)){
+        inventoryReservationService.trackReservation((Long) line[2], reservedUntil);
+      }
+
+      ProductDTO productDTO = products.get(productId);
+      productDTO.setQuantity((Integer) line[1]);
+      cartProducts.add(productDTO);
+    }
 
-    cartDTO.setProducts(producStream.toList());
+    logger.debug("Applied {} cart operations to cart {}", operations.size(), cart.getCartId());
+    CartDTO cartDTO = new CartDTO(cart.getCartId(), cart.getTotalPrice() + totalPriceChange, cartProducts);
+    cartCache.putAfterCommit(userId, cacheGeneration, cartDTO);
     return cartDTO;
   }
 
   @Override
-  public List<CartDTO> getAllCarts() {
-    List<Cart> cartList = cartRepository.findAll();
-
-    if(cartList.isEmpty()){
-      throw new APIException("No Cart Exist");
+  public CartSliceResponse getCartsAfter(String after, Integer pageSize, boolean nonEmpty, Instant updatedSince) {
+    if(pageSize < 1 || pageSize > listingPageSize){
+      throw new APIException("Page size must be between 1 and " + listingPageSize);
     }
 
-    return cartList.stream().map(cart -> {
+    KeysetCursor cursor = after == null
+      ? KeysetCursor.first("cartId", "asc", SCROLLABLE_FIELDS)
+      : KeysetCursor.decode(after, SCROLLABLE_FIELDS);
 
-      CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+    List<CartDTO> carts = findCartPage(cursor.getLastId() == null ? 0L : cursor.getLastId(), pageSize + 1,
+      nonEmpty, updatedSince);
 
-      List<ProductDTO> productDTOS = cart.getCartItems().stream().map(cartItem->{
-        ProductDTO productDTO = modelMapper.map(cartItem.getProduct(), ProductDTO.class);
-        productDTO.setQuantity(cartItem.getQuantity());
-        return productDTO;
-      }).collect(Collectors.toList());
+    boolean lastPage = carts.size() <= pageSize;
+    List<CartDTO> cartDTOS = carts.stream().limit(pageSize).toList();
 
-      cartDTO.setProducts(productDTOS);
+    String nextCursor = lastPage ? null : cursor.next(cartDTOS.get(cartDTOS.size() - 1), "cartId");
 
-      return cartDTO;
-    }).toList();
+    return new CartSliceResponse(cartDTOS, pageSize, nextCursor, lastPage);
+  }
+
+  // walks the carts page by page, each page read in its own short transaction and written out before the next
+  // one is fetched, so memory stays bounded by the page size however many carts there are
+  @Override
+  public void streamCarts(OutputStream outputStream, boolean nonEmpty, Instant updatedSince) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+    generator.setRootValueSeparator(null);
+
+    long lastCartId = 0L;
+    long streamed = 0;
+    List<CartDTO> carts;
+    do {
+      carts = findCartPage(lastCartId, listingPageSize, nonEmpty, updatedSince);
+      for (CartDTO cartDTO : carts) {
+        generator.writeObject(cartDTO);
+        generator.writeRaw('\n');
+      }
+      generator.flush();
+
+      if(!carts.isEmpty()){
+        lastCartId = carts.get(carts.size() - 1).getCartId();
+        streamed += carts.size();
+      }
+    } while (carts.size() == listingPageSize);
+
+    writer.flush();
+    logger.debug("Streamed {} carts", streamed);
   }
 
   @Override
@@ -121,40 +279,64 @@ public class CartServiceImplementation implements CartService{
       throw new ResourceNotFoundException("Cart","CartId",cartId);
     }
 
-    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
+    return cartMapper.toCartDTO(cart);
+  }
 
-    cart.getCartItems().forEach(cartItem -> cartItem.getProduct().setQuantity(cartItem.getQuantity()));
+  @Override
+  public CartDTO getUserCart(Long userId) {
+    return cartCache.findByUserId(userId).orElseThrow(
+      ()-> new ResourceNotFoundException("Cart", "userId", userId)
+    );
+  }
 
-    List<ProductDTO> productDTOS = cart.getCartItems().stream()
-      .map(cartItem -> modelMapper.map(cartItem.getProduct(), ProductDTO.class)).toList();
-    cartDTO.setProducts(productDTOS);
-    return cartDTO;
+  // a user without a cart yet gets an empty summary, the header badge just shows zero
+  @Override
+  public CartSummaryDTO getCartSummary(Long userId) {
+    return cartCache.findSummaryByUserId(userId).orElseGet(CartSummaryDTO::new);
   }
 
   @Transactional
   @Override
   public String deleteProductFromCart(Long cartId, Long productId) {
+    Long userId = authUtil.loggedInUserId();
+    CartCache.Generation cacheGeneration = cartCache.generation(userId);
     Cart cart = cartRepository.findById(cartId).orElseThrow(
       ()-> new ResourceNotFoundException("Cart","cartID", cartId)
     );
 
+    removeProductFromCart(cart, productId);
+
+    if(userId.equals(cart.getUser().getId())){
+      writeThrough(userId, cacheGeneration);
+    }
+    else {
+      cartCache.evictAfterCommit(List.of(cart.getUser().getId()));
+    }
+
+    return "Product removed From Cart";
+  }
+
+  private void removeProductFromCart(Cart cart, Long productId) {
+    Long cartId = cart.getCartId();
     CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
 
     if(cartItem==null){
       throw new ResourceNotFoundException("Product","productID",productId);
     }
 
-    cart.setTotalPrice(cart.getTotalPrice()-(cartItem.getProduct().getSpacialPrice()*cartItem.getQuantity()));
-
-    cartItemRepository.deleteCartItemByProductIdAndCartId(cartId, productId);
+    cart.setTotalPrice(cart.getTotalPrice()-(cartItem.getProductPrice()*cartItem.getQuantity()));
 
-    return "Product removed From Cart";
+    if(cartItemRepository.deleteCartItemByProductIdAndCartId(cartId, productId) == 1){
+      inventoryReservationService.release(productId, cartItem.getQuantity());
+      inventoryReservationService.untrackReservation(cartItem.getCartItemId());
+    }
   }
 
   @Transactional
   @Override
   public CartDTO updateProductQuantityInCart(Long productId, Integer quantity) {
+    Long userId = authUtil.loggedInUserId();
+    CartCache.Generation cacheGeneration = cartCache.generation(userId);
     String emailId = authUtil.loggedInEmail();
     Cart cartUser = cartRepository.findCartByEmail(emailId);
     Long cartId = cartUser.getCartId();
@@ -163,19 +345,10 @@ public class CartServiceImplementation implements CartService{
       ()-> new ResourceNotFoundException("Cart","CartId",cartId)
     );
 
-    Product product = productRepository.findById(productId).orElseThrow(
+    Product product = productCache.findById(productId).orElseThrow(
       ()-> new ResourceNotFoundException("Product", "ProductId", productId)
     );
 
-    if(product.getQuantity()==0){
-      throw new APIException("Product is not available!!");
-    }
-
-    if(product.getQuantity()<quantity){
-      throw new APIException("Please, make an order of the " + product.getProductName()
-        + " less than or equal to the quantity " + product.getQuantity() + ".");
-    }
-
     CartItem cartItem = cartItemRepository.findCartItemByProductIdAndCartId(cartId, productId);
 
     if(cartItem==null){
@@ -188,15 +361,25 @@ public class CartServiceImplementation implements CartService{
     }
 
     if(newQuantity==0){
-      deleteProductFromCart(cartId,productId);
+      removeProductFromCart(cart, productId);
     }
 
     else {
+      if(quantity > 0 && !inventoryReservationService.reserve(productId, quantity)){
+        throw new APIException(product.getProductName() + " is out of stock");
+      }
+      if(quantity < 0){
+        inventoryReservationService.release(productId, -quantity);
+      }
+
+      cartItem.setReservedUntil(inventoryReservationService.reservationDeadline());
+      inventoryReservationService.trackReservation(cartItem.getCartItemId(), cartItem.getReservedUntil());
+      double oldLineTotal = cartItem.getProductPrice() * cartItem.getQuantity();
       cartItem.setProductPrice(product.getSpacialPrice());
-      cartItem.setQuantity(cartItem.getQuantity() + quantity);
+      cartItem.setQuantity(newQuantity);
       cartItem.setDiscount(product.getDiscount());
 
-      cart.setTotalPrice(cart.getTotalPrice() + (cartItem.getProductPrice() * quantity));
+      cart.setTotalPrice(cart.getTotalPrice() - oldLineTotal + (cartItem.getProductPrice() * newQuantity));
 
       cartRepository.save(cart);
     }
@@ -207,20 +390,7 @@ public class CartServiceImplementation implements CartService{
       cartItemRepository.deleteById(cartItemUpdated.getCartItemId());
     }
 
-    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-    List<CartItem> cartItems = cart.getCartItems();
-
-    Stream<ProductDTO> productStream = cartItems.stream().map(
-      cartsItem->{
-        ProductDTO productDTO = modelMapper.map(cartsItem.getProduct(), ProductDTO.class);
-        productDTO.setQuantity(cartsItem.getQuantity());
-        return productDTO;
-      }
-    );
-
-    cartDTO.setProducts(productStream.toList());
-    return cartDTO;
+    return writeThrough(userId, cacheGeneration);
   }
 
   @Override
@@ -229,7 +399,7 @@ public class CartServiceImplementation implements CartService{
       ()-> new ResourceNotFoundException("Cart", "CartId", cartId)
     );
 
-    Product product = productRepository.findById(productId).orElseThrow(
+    Product product = productCache.findById(productId).orElseThrow(
       ()-> new ResourceNotFoundException("Product", "ProductId", productId)
     );
 
@@ -246,8 +416,142 @@ public class CartServiceImplementation implements CartService{
     cart.setTotalPrice(cartPrice + (cartItem.getProductPrice()*cartItem.getQuantity()));
 
     cartItemRepository.save(cartItem);
+    cartCache.evictAfterCommit(List.of(cart.getUser().getId()));
+  }
+
+  @Override
+  public int repriceProductInCarts(Long productId, double productPrice) {
+    List<Long> cartIds = cartItemRepository.findCartIdsByProductId(productId);
+
+    for (int from = 0; from < cartIds.size(); from += repriceChunkSize) {
+      List<Long> chunk = cartIds.subList(from, Math.min(from + repriceChunkSize, cartIds.size()));
+
+      transactionTemplate.executeWithoutResult(status -> {
+        cartRepository.repriceTotalPriceForProduct(productId, productPrice, chunk, Instant.now());
+        cartItemRepository.updateProductPriceInCarts(productId, productPrice, chunk);
+      });
+      cartCache.evictProduct(productId);
+    }
+
+    logger.debug("Repriced product {} in {} carts", productId, cartIds.size());
+    return cartIds.size();
+  }
+
+  @Async
+  @Override
+  public void repriceProductInCartsAsync(Long productId, double productPrice) {
+    repriceProductInCarts(productId, productPrice);
+  }
+
+  // one page is three bounded queries: the carts after the cursor, their lines, and the products on those lines.
+  // Product entities are never loaded since their cartItems are fetched eagerly
+  private List<CartDTO> findCartPage(long afterCartId, int limit, boolean nonEmpty, Instant updatedSince) {
+    return transactionTemplate.execute(status -> {
+      List<Object[]> carts = cartRepository.findCartsAfter(afterCartId, nonEmpty, updatedSince, PageRequest.of(0, limit));
+      if(carts.isEmpty()){
+        return List.<CartDTO>of();
+      }
+
+      Map<Long, CartDTO> cartDTOS = new LinkedHashMap<>();
+      for (Object[] cart : carts) {
+        cartDTOS.put((Long) cart[0], new CartDTO((Long) cart[0], (Double) cart[1], new ArrayList<>()));
+      }
+
+      List<Object[]> lines = cartItemRepository.findCartLinesByCartIdIn(cartDTOS.keySet());
+      if(!lines.isEmpty()){
+        Map<Long, ProductDTO> products = productRepository.findProductDTOsByProductIdIn(
+            lines.stream().map(line -> (Long) line[1]).collect(Collectors.toSet())).stream()
+          .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+
+        for (Object[] line : lines) {
+          ProductDTO product = products.get((Long) line[1]);
+          cartDTOS.get((Long) line[0]).getProducts().add(new ProductDTO(product.getProductId(), product.getProductName(),
+            product.getImage(), product.getDescription(), (Integer) line[2], product.getPrice(), product.getDiscount(),
+            product.getSpacialPrice()));
+        }
+      }
+
+      return new ArrayList<>(cartDTOS.values());
+    });
+  }
+
+  // the snapshot is read inside the mutation's transaction and only published to the cache once it commits
+  private CartDTO writeThrough(Long userId, CartCache.Generation cacheGeneration) {
+    CartDTO cartDTO = cartCache.load(userId).orElseThrow(
+      ()-> new ResourceNotFoundException("Cart", "userId", userId)
+    );
+    cartCache.putAfterCommit(userId, cacheGeneration, cartDTO);
+    return cartDTO;
   }
 
+  private void applyOperation(CartOperationDTO operation, Map<Long, ProductDTO> products, Map<Long, Integer> quantities) {
+    Long productId = operation.getProductId();
+    ProductDTO product = products.get(productId);
+    if(product == null){
+      throw new ResourceNotFoundException("Product", "productID", productId);
+    }
+
+    Integer quantity = operation.getQuantity();
+    boolean inCart = quantities.containsKey(productId);
+    switch (operation.getOperation()) {
+      case ADD -> {
+        if(inCart){
+          throw new APIException("Product "+ product.getProductName() +" is already in the cart");
+        }
+        if(quantity == null || quantity <= 0){
+          throw new APIException("Quantity must be greater than zero");
+        }
+        quantities.put(productId, quantity);
+      }
+      case UPDATE -> {
+        if(!inCart){
+          throw new APIException(product.getProductName() +" is not available in the cart!!!");
+        }
+        if(quantity == null || quantity < 0){
+          throw new APIException("Quantity can not be negative!!");
+        }
+        if(quantity == 0){
+          quantities.remove(productId);
+        }
+        else {
+          quantities.put(productId, quantity);
+        }
+      }
+      case REMOVE -> {
+        if(!inCart){
+          throw new ResourceNotFoundException("Product","productID",productId);
+        }
+        quantities.remove(productId);
+      }
+    }
+  }
+
+  // Instant columns are written in UTC, the same way Hibernate binds them
+  private void writeCartItems(Long cartId, List<Object[]> inserts, List<Object[]> updates, Instant reservedUntil) {
+    Timestamp deadline = Timestamp.from(reservedUntil);
+    Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+
+    if(!inserts.isEmpty()){
+      jdbcTemplate.batchUpdate(INSERT_CART_ITEM, inserts, inserts.size(), (statement, line) -> {
+        statement.setLong(1, cartId);
+        statement.setLong(2, (Long) line[0]);
+        statement.setInt(3, (Integer) line[1]);
+        statement.setDouble(4, (Double) line[2]);
+        statement.setDouble(5, (Double) line[3]);
+        statement.setTimestamp(6, deadline, utc);
+      });
+    }
+
+    if(!updates.isEmpty()){
+      jdbcTemplate.batchUpdate(UPDATE_CART_ITEM, updates, updates.size(), (statement, line) -> {
+        statement.setInt(1, (Integer) line[1]);
+        statement.setDouble(2, (Double) line[2]);
+        statement.setDouble(3, (Double) line[3]);
+        statement.setTimestamp(4, deadline, utc);
+        statement.setLong(5, (Long) line[0]);
+      });
+    }
+  }
 
   private Cart createCart() {
     Cart userCart = cartRepository.findCartByEmail(authUtil.loggedInEmail());
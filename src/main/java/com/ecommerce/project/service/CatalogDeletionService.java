@@ -0,0 +1,17 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.payload.DeletionJobDTO;
+
+import java.util.List;
+
+public interface CatalogDeletionService {
+  int deleteProducts(List<Long> productIds);
+
+  int deleteCategory(Long categoryId);
+
+  DeletionJobDTO startProductDeletion(List<Long> productIds);
+
+  DeletionJobDTO startCategoryDeletion(Long categoryId);
+
+  DeletionJobDTO getDeletionJob(String jobId);
+}
@@ -0,0 +1,216 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exception.APIException;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.payload.DeletionJobDTO;
+import com.ecommerce.project.repository.CartItemRepository;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+
+@Service
+public class CatalogDeletionServiceImplementation implements CatalogDeletionService {
+  private static final Logger logger = LoggerFactory.getLogger(CatalogDeletionServiceImplementation.class);
+
+  private static final String QUEUED = "QUEUED";
+  private static final String RUNNING = "RUNNING";
+  private static final String COMPLETED = "COMPLETED";
+  private static final String FAILED = "FAILED";
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private List<ProductChangeListener> productChangeListeners;
+
+  @Value("${project.catalog.delete-batch-size}")
+  private int batchSize;
+
+  @Value("${project.catalog.deletion-jobs-retained}")
+  private int jobsRetained;
+
+  // one worker so that large deletions queue up behind each other instead of competing for the same locks
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "catalog-deletion");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final Map<String, DeletionJob> jobs = new LinkedHashMap<>() {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, DeletionJob> eldest) {
+      return size() > jobsRetained && eldest.getValue().isFinished();
+    }
+  };
+
+  @Override
+  public int deleteProducts(List<Long> productIds) {
+    return deleteProducts(productIds, deleted -> {});
+  }
+
+  @Override
+  public int deleteCategory(Long categoryId) {
+    return deleteCategory(categoryId, deleted -> {});
+  }
+
+  @Override
+  public DeletionJobDTO startProductDeletion(List<Long> productIds) {
+    if(productIds == null || productIds.isEmpty()){
+      throw new APIException("No products given for deletion");
+    }
+
+    List<Long> distinctIds = productIds.stream().distinct().toList();
+    DeletionJob job = new DeletionJob("products", null, distinctIds.size());
+    submit(job, () -> deleteProducts(distinctIds, job::setDeletedProducts));
+    return job.toDTO();
+  }
+
+  @Override
+  public DeletionJobDTO startCategoryDeletion(Long categoryId) {
+    if(!categoryRepository.existsById(categoryId)){
+      throw new ResourceNotFoundException("category", "categoryId", categoryId);
+    }
+
+    DeletionJob job = new DeletionJob("category", categoryId, productRepository.countByCategoryId(categoryId));
+    submit(job, () -> deleteCategory(categoryId, job::setDeletedProducts));
+    return job.toDTO();
+  }
+
+  @Override
+  public DeletionJobDTO getDeletionJob(String jobId) {
+    DeletionJob job;
+    synchronized (jobs) {
+      job = jobs.get(jobId);
+    }
+    if(job == null){
+      throw new ResourceNotFoundException("Deletion job", "jobId", jobId);
+    }
+    return job.toDTO();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private int deleteProducts(List<Long> productIds, LongConsumer progress) {
+    int deleted = 0;
+    for (int from = 0; from < productIds.size(); from += batchSize) {
+      deleted += deleteBatch(productIds.subList(from, Math.min(from + batchSize, productIds.size())));
+      progress.accept(deleted);
+    }
+    return deleted;
+  }
+
+  private int deleteCategory(Long categoryId, LongConsumer progress) {
+    int deleted = 0;
+    List<Long> batch;
+    while (!(batch = productRepository.findProductIdsByCategoryId(categoryId, PageRequest.of(0, batchSize))).isEmpty()) {
+      deleted += deleteBatch(batch);
+      progress.accept(deleted);
+    }
+
+    transactionTemplate.executeWithoutResult(status -> categoryRepository.deleteByCategoryId(categoryId));
+    logger.debug("Deleted category {} with {} products", categoryId, deleted);
+    return deleted;
+  }
+
+  private int deleteBatch(List<Long> productIds) {
+    Integer deleted = transactionTemplate.execute(status -> {
+      cartRepository.removeProductsFromTotalPrice(productIds, Instant.now());
+      cartItemRepository.deleteByProductIdIn(productIds);
+      return productRepository.deleteByProductIdIn(productIds);
+    });
+
+    productIds.forEach(productId -> productChangeListeners.forEach(listener -> listener.productRemoved(productId)));
+    return deleted == null ? 0 : deleted;
+  }
+
+  private void submit(DeletionJob job, Runnable work) {
+    synchronized (jobs) {
+      jobs.put(job.jobId, job);
+    }
+
+    executor.execute(() -> {
+      job.start();
+      try {
+        work.run();
+        job.finish(COMPLETED, null);
+      } catch (RuntimeException e) {
+        logger.warn("Deletion job {} failed", job.jobId, e);
+        job.finish(FAILED, e.getMessage());
+      }
+    });
+  }
+
+  private static class DeletionJob {
+    private final String jobId = UUID.randomUUID().toString();
+    private final String target;
+    private final Long targetId;
+    private final long totalProducts;
+    private volatile String status = QUEUED;
+    private volatile long deletedProducts;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String errorMessage;
+
+    DeletionJob(String target, Long targetId, long totalProducts) {
+      this.target = target;
+      this.targetId = targetId;
+      this.totalProducts = totalProducts;
+    }
+
+    void setDeletedProducts(long deletedProducts) {
+      this.deletedProducts = deletedProducts;
+    }
+
+    void start() {
+      startedAt = Instant.now();
+      status = RUNNING;
+    }
+
+    void finish(String finalStatus, String message) {
+      errorMessage = message;
+      finishedAt = Instant.now();
+      status = finalStatus;
+    }
+
+    boolean isFinished() {
+      return finishedAt != null;
+    }
+
+    DeletionJobDTO toDTO() {
+      return new DeletionJobDTO(jobId, target, targetId, status, totalProducts, deletedProducts,
+        startedAt, finishedAt, errorMessage);
+    }
+  }
+}
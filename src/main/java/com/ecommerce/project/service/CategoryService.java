@@ -3,11 +3,15 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.CategorySliceResponse;
 
 import java.util.List;
 
 public interface CategoryService {
   CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
+
+  CategorySliceResponse getCategoriesAfter(String after, Integer pageSize, String sortBy, String sortOrder);
+
   CategoryDTO createCategory (CategoryDTO categoryDTO);
 
   CategoryDTO deleteCategory(Long categoryId);
@@ -3,11 +3,13 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.exception.APIException;
 import com.ecommerce.project.exception.EmptyReturnListException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.mapper.CategoryMapper;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.payload.CategoryDTO;
 import com.ecommerce.project.payload.CategoryResponse;
+import com.ecommerce.project.payload.CategorySliceResponse;
 import com.ecommerce.project.repository.CategoryRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.utils.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -16,15 +18,23 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CategoryServiceImplementation implements CategoryService {
+  private static final Map<String, Class<?>> SCROLLABLE_FIELDS = Map.of(
+    "categoryId", Long.class,
+    "categoryName", String.class
+  );
 
   @Autowired
   private CategoryRepository categoryRepository;
   @Autowired
-  private ModelMapper modelMapper;
+  private CategoryMapper categoryMapper;
+
+  @Autowired
+  private CatalogDeletionService catalogDeletionService;
 
   @Override
   public CategoryResponse getAllCategories(Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
@@ -43,7 +53,7 @@ public class CategoryServiceImplementation implements CategoryService {
     }
 
     List<CategoryDTO> categoryDTOList = categoryList.stream()
-      .map(category -> modelMapper.map(category, CategoryDTO.class))
+      .map(category -> categoryMapper.toCategoryDTO(category))
       .toList();
 
     CategoryResponse categoryResponse = new CategoryResponse();
@@ -57,23 +67,52 @@ public class CategoryServiceImplementation implements CategoryService {
     return categoryResponse;
   }
 
+  @Override
+  public CategorySliceResponse getCategoriesAfter(String after, Integer pageSize, String sortBy, String sortOrder) {
+    if(pageSize < 1){
+      throw new APIException("Page size must be at least 1");
+    }
+
+    KeysetCursor cursor = after == null
+      ? KeysetCursor.first(sortBy, sortOrder, SCROLLABLE_FIELDS)
+      : KeysetCursor.decode(after, SCROLLABLE_FIELDS);
+
+    List<Category> categoryList = categoryRepository.findBy(cursor.<Category>after("categoryId"),
+      query -> query.sortBy(cursor.sort("categoryId")).limit(pageSize + 1).all());
+
+    if(categoryList.isEmpty() && after == null){
+      throw new EmptyReturnListException("Category List is Empty");
+    }
+
+    boolean lastPage = categoryList.size() <= pageSize;
+    List<CategoryDTO> categoryDTOList = categoryList.stream()
+      .limit(pageSize)
+      .map(category -> categoryMapper.toCategoryDTO(category))
+      .toList();
+
+    String nextCursor = lastPage ? null : cursor.next(categoryDTOList.get(categoryDTOList.size() - 1), "categoryId");
+
+    return new CategorySliceResponse(categoryDTOList, pageSize, nextCursor, lastPage);
+  }
+
   @Override
   public CategoryDTO createCategory(CategoryDTO categoryDTO) {
-    Category category = modelMapper.map(categoryDTO, Category.class);
+    Category category = categoryMapper.toCategory(categoryDTO);
     Category findCategory = categoryRepository.findByCategoryName(category.getCategoryName());
     if(findCategory!=null){
       throw new APIException("category with the name " + findCategory.getCategoryName() + " already exist ! ");
     }
     Category savedCategory = categoryRepository.save(category);
-    return modelMapper.map(savedCategory, CategoryDTO.class);
+    return categoryMapper.toCategoryDTO(savedCategory);
   }
 
   @Override
   public CategoryDTO deleteCategory(Long categoryId) {
     Category category = categoryRepository.findById(categoryId)
       .orElseThrow(()->new ResourceNotFoundException("category","categoryId",categoryId));
-    categoryRepository.delete(category);
-    return modelMapper.map(category, CategoryDTO.class);
+    CategoryDTO categoryDTO = categoryMapper.toCategoryDTO(category);
+    catalogDeletionService.deleteCategory(categoryId);
+    return categoryDTO;
   }
 
   @Override
@@ -81,9 +120,9 @@ public class CategoryServiceImplementation implements CategoryService {
     Optional<Category> savedCategoryOptional = categoryRepository.findById(categoryId);
     Category findCategory = savedCategoryOptional
       .orElseThrow(()->new ResourceNotFoundException("category","categoryId",categoryId));
-    Category savedCategory = modelMapper.map(categoryDTO, Category.class);
+    Category savedCategory = categoryMapper.toCategory(categoryDTO);
     savedCategory.setCategoryId(categoryId);
     categoryRepository.save(savedCategory);
-    return modelMapper.map(savedCategory, CategoryDTO.class);
+    return categoryMapper.toCategoryDTO(savedCategory);
   }
 }
@@ -1,6 +1,7 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.payload.ProductResponse;
 import org.springframework.data.domain.Page;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,4 +13,6 @@ public interface FileService {
   String uploadImage(String path, MultipartFile file) throws IOException;
 
   ProductResponse getAllResponse (List<Product>products, Page<Product> productPage);
+
+  ProductResponse getPageResponse(Page<ProductDTO> productPage);
 }
@@ -1,10 +1,10 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.mapper.ProductMapper;
 import com.ecommerce.project.model.Product;
 import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.payload.ProductResponse;
 import org.springframework.data.domain.Page;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -17,10 +17,10 @@ import java.util.UUID;
 
 @Service
 public class FileServiceImplementation implements FileService{
-  private final ModelMapper modelMapper;
+  private final ProductMapper productMapper;
 
-  public FileServiceImplementation(ModelMapper modelMapper) {
-    this.modelMapper = modelMapper;
+  public FileServiceImplementation(ProductMapper productMapper) {
+    this.productMapper = productMapper;
   }
 
   @Override
@@ -45,9 +45,18 @@ public class FileServiceImplementation implements FileService{
   @Override
   public ProductResponse getAllResponse(List<Product> products, Page<Product> productPage) {
     List<ProductDTO> productDTOS = products.stream()
-      .map(product -> modelMapper.map(product, ProductDTO.class))
+      .map(product -> productMapper.toProductDTO(product))
       .toList();
 
+    return buildResponse(productDTOS, productPage);
+  }
+
+  @Override
+  public ProductResponse getPageResponse(Page<ProductDTO> productPage) {
+    return buildResponse(productPage.getContent(), productPage);
+  }
+
+  private ProductResponse buildResponse(List<ProductDTO> productDTOS, Page<?> productPage) {
     ProductResponse productResponse = new ProductResponse();
 
     productResponse.setContent(productDTOS);
@@ -0,0 +1,18 @@
+package com.ecommerce.project.service;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface InventoryReservationService {
+  boolean reserve(Long productId, int quantity);
+
+  void release(Long productId, int quantity);
+
+  Instant reservationDeadline();
+
+  void trackReservation(Long cartItemId, Instant reservedUntil);
+
+  void untrackReservation(Long cartItemId);
+
+  int releaseExpired(Collection<Long> cartItemIds, Instant now);
+}
@@ -0,0 +1,214 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.cache.CartCache;
+import com.ecommerce.project.repository.CartItemRepository;
+import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.utils.HashedTimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+
+// a cart item is the reservation: its quantity is taken off Product.quantity when it enters the cart and handed back
+// when it leaves without being ordered. Taking stock is one conditional UPDATE, so the check and the decrement are a
+// single atomic step in the database and concurrent buyers cannot oversell or overwrite each other
+@Service
+public class InventoryReservationServiceImplementation implements InventoryReservationService {
+  private static final Logger logger = LoggerFactory.getLogger(InventoryReservationServiceImplementation.class);
+
+  private static final int REBUILD_PAGE_SIZE = 10000;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
+  @Autowired
+  private List<ProductChangeListener> productChangeListeners;
+
+  @Autowired
+  private CartCache cartCache;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Value("${project.cart.reservation-ttl-ms}")
+  private long reservationTtlMs;
+
+  @Value("${project.cart.reservation-expiry-batch-size}")
+  private int expiryBatchSize;
+
+  @Value("${project.cart.reservation-wheel-tick-ms}")
+  private long wheelTickMs;
+
+  @Value("${project.cart.reservation-wheel-size}")
+  private int wheelSize;
+
+  // deadlines of the reservations this node knows about; firing re-checks reserved_until under a row lock, so an
+  // entry left behind by a rolled back or since extended line releases nothing
+  private HashedTimingWheel wheel;
+
+  private Counter expiredCounter;
+
+  @PostConstruct
+  public void init() {
+    wheel = new HashedTimingWheel(wheelTickMs, wheelSize, System.currentTimeMillis());
+    Gauge.builder("cart.reservations.scheduled", this, InventoryReservationServiceImplementation::scheduledReservations)
+      .register(meterRegistry);
+    expiredCounter = Counter.builder("cart.reservations.expired").register(meterRegistry);
+  }
+
+  @Transactional
+  @Override
+  public boolean reserve(Long productId, int quantity) {
+    if(productRepository.reserveQuantity(productId, quantity) == 0){
+      return false;
+    }
+    quantityAdjusted(productId, -quantity);
+    return true;
+  }
+
+  @Transactional
+  @Override
+  public void release(Long productId, int quantity) {
+    if(productRepository.releaseQuantity(productId, quantity) > 0){
+      quantityAdjusted(productId, quantity);
+    }
+  }
+
+  @Override
+  public Instant reservationDeadline() {
+    return Instant.now().plusMillis(reservationTtlMs);
+  }
+
+  @Override
+  public void trackReservation(Long cartItemId, Instant reservedUntil) {
+    synchronized (wheel) {
+      wheel.schedule(cartItemId, reservedUntil.toEpochMilli());
+    }
+  }
+
+  @Override
+  public void untrackReservation(Long cartItemId) {
+    synchronized (wheel) {
+      wheel.cancel(cartItemId);
+    }
+  }
+
+  // the expired lines are locked first, so a removal or checkout racing on the same line waits and then finds it
+  // gone; stock, cart totals and the lines themselves are then settled with one statement each for the whole batch
+  @Override
+  public int releaseExpired(Collection<Long> cartItemIds, Instant now) {
+    if(cartItemIds.isEmpty()){
+      return 0;
+    }
+
+    Integer released = transactionTemplate.execute(status -> {
+      List<Object[]> expired = cartItemRepository.lockExpiredReservations(cartItemIds, now);
+      if(expired.isEmpty()){
+        return 0;
+      }
+
+      List<Long> expiredIds = new ArrayList<>(expired.size());
+      Map<Long, Integer> releasedByProduct = new HashMap<>();
+      for (Object[] row : expired) {
+        expiredIds.add((Long) row[0]);
+        releasedByProduct.merge((Long) row[1], (Integer) row[2], Integer::sum);
+      }
+
+      cartCache.evictAfterCommit(cartRepository.findUserIdsByCartItemIdIn(expiredIds));
+      productRepository.releaseQuantityForCartItems(expiredIds);
+      cartRepository.removeCartItemsFromTotalPrice(expiredIds, now);
+      int deleted = cartItemRepository.deleteByCartItemIdIn(expiredIds);
+
+      releasedByProduct.forEach(this::quantityAdjusted);
+      return deleted;
+    });
+    return released == null ? 0 : released;
+  }
+
+  @Scheduled(fixedRateString = "${project.cart.reservation-wheel-tick-ms}")
+  public void tick() {
+    Instant now = Instant.now();
+    List<Long> due = new ArrayList<>();
+    synchronized (wheel) {
+      wheel.advance(now.toEpochMilli(), due::add);
+    }
+
+    for (int from = 0; from < due.size(); from += expiryBatchSize) {
+      List<Long> batch = due.subList(from, Math.min(from + expiryBatchSize, due.size()));
+      try {
+        expiredCounter.increment(releaseExpired(batch, now));
+      } catch (RuntimeException e) {
+        logger.warn("Releasing {} expired cart reservations failed, retrying on the next tick", batch.size(), e);
+        synchronized (wheel) {
+          batch.forEach(cartItemId -> wheel.schedule(cartItemId, now.toEpochMilli()));
+        }
+      }
+    }
+  }
+
+  // reservations outlive the process, so the wheel is refilled from the indexed deadlines, a page at a time
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long lastCartItemId = 0;
+    int loaded = 0;
+    List<Object[]> page;
+    while (!(page = cartItemRepository.findReservationsAfter(lastCartItemId, PageRequest.of(0, REBUILD_PAGE_SIZE))).isEmpty()) {
+      synchronized (wheel) {
+        for (Object[] row : page) {
+          wheel.schedule((Long) row[0], ((Instant) row[1]).toEpochMilli());
+        }
+      }
+      lastCartItemId = (Long) page.get(page.size() - 1)[0];
+      loaded += page.size();
+    }
+
+    logger.info("Cart reservation wheel rebuilt with {} reservations", loaded);
+  }
+
+  public int scheduledReservations() {
+    synchronized (wheel) {
+      return wheel.size();
+    }
+  }
+
+  // caches and search indexes only see the new stock level once it is committed
+  private void quantityAdjusted(Long productId, int delta) {
+    if(TransactionSynchronizationManager.isSynchronizationActive()){
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          productChangeListeners.forEach(listener -> listener.productQuantityAdjusted(productId, delta));
+        }
+      });
+    }
+    else {
+      productChangeListeners.forEach(listener -> listener.productQuantityAdjusted(productId, delta));
+    }
+  }
+}
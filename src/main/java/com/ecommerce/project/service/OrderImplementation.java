@@ -1,19 +1,31 @@
 package com.ecommerce.project.service;
 
+import com.ecommerce.project.cache.CartCache;
 import com.ecommerce.project.exception.APIException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.mapper.OrderMapper;
 import com.ecommerce.project.model.*;
+import com.ecommerce.project.payload.CartDTO;
 import com.ecommerce.project.payload.OrderDTO;
 import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.ProductDTO;
 import com.ecommerce.project.repository.*;
-import jakarta.transaction.Transactional;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.search.ProductSuggestionIndex;
+import com.ecommerce.project.utils.AuthUtil;
+import com.ecommerce.project.utils.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderImplementation implements OrderService{
@@ -23,6 +35,9 @@ public class OrderImplementation implements OrderService{
   @Autowired
   private CartRepository cartRepository;
 
+  @Autowired
+  private CartItemRepository cartItemRepository;
+
   @Autowired
   private OrderItemRepository orderItemRepository;
 
@@ -36,20 +51,66 @@ public class OrderImplementation implements OrderService{
   private ProductRepository productRepository;
 
   @Autowired
-  private CartService cartService;
+  private ProductSuggestionIndex productSuggestionIndex;
+
+  @Autowired
+  private OrderMapper orderMapper;
+
+  @Autowired
+  private InventoryReservationService inventoryReservationService;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
   @Autowired
-  private ModelMapper modelMapper;
+  private StatementCounter statementCounter;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private CartCache cartCache;
+
+  @Autowired
+  private AuthUtil authUtil;
+
+  // checkout is a fixed number of statements whatever the cart size. Stock was already reserved when each line went
+  // into the cart, so the order consumes those reservations: one INSERT ... SELECT copies the lines into order
+  // items and one DELETE removes them from the cart without handing stock back
   @Override
-  @Transactional
   public OrderDTO placeOrder(String email, Long addressId, String paymentMethode, String pgName, String pgPaymentId,
                              String pgStatus, String pgResponseMessage) {
+    long statementsBefore = statementCounter.current();
+    Long userId = authUtil.loggedInUserId();
+    CartCache.Generation cacheGeneration = cartCache.generation(userId);
+
+    Checkout checkout = transactionTemplate.execute(status -> checkout(email, addressId,
+      new Payment(paymentMethode, pgPaymentId, pgStatus, pgResponseMessage, pgName), userId, cacheGeneration));
+
+    checkout.lines.forEach(line -> {
+      productSuggestionIndex.recordOrder((Long) line[0], (Integer) line[1]);
+      inventoryReservationService.untrackReservation((Long) line[2]);
+    });
+
+    DistributionSummary.builder("orders.checkout.statements")
+      .baseUnit("statements")
+      .register(meterRegistry)
+      .record(statementCounter.current() - statementsBefore);
 
+    return checkout.orderDTO;
+  }
+
+  private Checkout checkout(String email, Long addressId, Payment payment, Long userId, CartCache.Generation cacheGeneration) {
     Cart cart = cartRepository.findCartByEmail(email);
     if(cart==null){
       throw new APIException("Cart not found");
     }
 
+    List<Object[]> lines = cartItemRepository.findProductQuantitiesByCartId(cart.getCartId());
+    if(lines.isEmpty()){
+      throw new APIException("Cart not found");
+    }
+
     Address address = addressRepository.findById(addressId).orElseThrow(
       ()-> new ResourceNotFoundException("Cart", "Email", email)
     );
@@ -61,48 +122,38 @@ public class OrderImplementation implements OrderService{
     order.setOrderStatus("Order Accepted!");
     order.setAddress(address);
 
-    Payment payment = new Payment(paymentMethode, pgPaymentId, pgStatus, pgResponseMessage, pgName);
     payment.setOrder(order);
     paymentRepository.save(payment);
 
     order.setPayment(payment);
     Orders savedOrder = orderRepository.save(order);
 
-    List<CartItem> cartItems = cart.getCartItems();
-    if(cartItems.isEmpty()){
-      throw new APIException("Cart not found");
+    // a line that expired since it was read has already given its stock back, so the order is refused
+    if(orderItemRepository.copyCartItemsToOrder(cart.getCartId(), savedOrder.getOrderId()) != lines.size()
+      || cartItemRepository.deleteByCartId(cart.getCartId()) != lines.size()){
+      throw new APIException("Some products in the cart are no longer reserved, please review the cart");
     }
+    cartRepository.resetTotalPrice(cart.getCartId(), Instant.now());
 
-    List<OrderItem> orderItems = new ArrayList<>();
-
-    for(CartItem cartItem : cartItems){
-      OrderItem orderItem = new OrderItem();
-      orderItem.setProduct(cartItem.getProduct());
-      orderItem.setQuantity(cartItem.getQuantity());
-      orderItem.setDiscount(cartItem.getDiscount());
-      orderItem.setOrderedProductPrice(cartItem.getProductPrice());
-      orderItem.setOrder(savedOrder);
-
-      orderItems.add(orderItem);
+    if(userId.equals(cart.getUser().getId())){
+      cartCache.putAfterCommit(userId, cacheGeneration, new CartDTO(cart.getCartId(), 0.0, new ArrayList<>()));
+    }
+    else {
+      cartCache.evictAfterCommit(List.of(cart.getUser().getId()));
     }
 
-    orderItemRepository.saveAll(orderItems);
-
-    cart.getCartItems().forEach(cartItem -> {
-      int quantity = cartItem.getQuantity();
-      Product product = cartItem.getProduct();
-
-      product.setQuantity(product.getQuantity() - quantity);
-
-      productRepository.save(product);
-
-      cartService.deleteProductFromCart(cart.getCartId(), cartItem.getProduct().getProductId());
-    });
+    List<Object[]> orderItemRows = orderItemRepository.findOrderItemRowsByOrderId(savedOrder.getOrderId());
+    Map<Long, ProductDTO> products = productRepository.findProductDTOsByProductIdIn(
+        orderItemRows.stream().map(row -> (Long) row[1]).toList()).stream()
+      .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
 
-    OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+    OrderDTO orderDTO = orderMapper.toOrderDTO(savedOrder);
+    orderItemRows.forEach(row -> orderDTO.getOrderItems().add(new OrderItemDTO((Long) row[0], products.get((Long) row[1]),
+      (Integer) row[2], (Double) row[3], (Double) row[4])));
 
-    orderItems.forEach(orderItem -> orderDTO.getOrderItems().add(modelMapper.map(orderItem, OrderItemDTO.class)));
+    return new Checkout(orderDTO, lines);
+  }
 
-    return orderDTO;
+  private record Checkout(OrderDTO orderDTO, List<Object[]> lines) {
   }
 }
@@ -0,0 +1,11 @@
+package com.ecommerce.project.service;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PasswordHashingService {
+  CompletableFuture<String> encode(String rawPassword);
+
+  CompletableFuture<Authentication> authenticate(String username, String rawPassword);
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// BCrypt is deliberately slow, so hashing and login checks run on their own bounded pool instead of
+// request threads; when the queue is full callers get an immediate 503 rather than waiting in line
+@Service
+public class PasswordHashingServiceImplementation implements PasswordHashingService {
+  private final PasswordEncoder passwordEncoder;
+  private final AuthenticationManager authenticationManager;
+  private final ThreadPoolExecutor executor;
+  private final long retryAfterSeconds;
+  private final MeterRegistry meterRegistry;
+
+  public PasswordHashingServiceImplementation(PasswordEncoder passwordEncoder,
+                                              AuthenticationManager authenticationManager,
+                                              MeterRegistry meterRegistry,
+                                              @Value("${project.auth.password-pool-size}") int poolSize,
+                                              @Value("${project.auth.password-queue-capacity}") int queueCapacity,
+                                              @Value("${project.auth.password-retry-after-seconds}") long retryAfterSeconds) {
+    this.passwordEncoder = passwordEncoder;
+    this.authenticationManager = authenticationManager;
+    this.meterRegistry = meterRegistry;
+    this.retryAfterSeconds = retryAfterSeconds;
+
+    int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+        Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }, new ThreadPoolExecutor.AbortPolicy());
+
+    Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+      .register(meterRegistry);
+    Gauge.builder("auth.password.active", executor, ThreadPoolExecutor::getActiveCount)
+      .register(meterRegistry);
+  }
+
+  @Override
+  public CompletableFuture<String> encode(String rawPassword) {
+    return submit("encode", () -> passwordEncoder.encode(rawPassword));
+  }
+
+  @Override
+  public CompletableFuture<Authentication> authenticate(String username, String rawPassword) {
+    return submit("verify", () -> authenticationManager.authenticate(
+      new UsernamePasswordAuthenticationToken(username, rawPassword)));
+  }
+
+  // latency is measured from submission, so it includes the time spent waiting in the queue
+  private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+    long startedAt = System.nanoTime();
+    CompletableFuture<T> future;
+    try {
+      future = CompletableFuture.supplyAsync(task, executor);
+    } catch (RejectedExecutionException e) {
+      Counter.builder("auth.password.rejected").tag("operation", operation).register(meterRegistry).increment();
+      throw new ServiceBusyException("Too many login requests, please retry shortly", retryAfterSeconds);
+    }
+
+    return future.whenComplete((result, failure) ->
+      Timer.builder("auth.password.latency")
+        .tag("operation", operation)
+        .tag("outcome", failure == null ? "success" : "failure")
+        .register(meterRegistry)
+        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
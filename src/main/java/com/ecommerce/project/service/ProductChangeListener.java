@@ -0,0 +1,12 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.search.IndexedProduct;
+
+public interface ProductChangeListener {
+  void productSaved(IndexedProduct product);
+
+  void productRemoved(Long productId);
+
+  default void productQuantityAdjusted(Long productId, int delta) {
+  }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.project.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ProductExportService {
+  String contentType(String format);
+
+  void exportProducts(OutputStream outputStream, String format) throws IOException;
+}
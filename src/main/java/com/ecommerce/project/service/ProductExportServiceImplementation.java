@@ -0,0 +1,119 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exception.APIException;
+import com.ecommerce.project.utils.CsvWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+@Service
+public class ProductExportServiceImplementation implements ProductExportService {
+  private static final Logger logger = LoggerFactory.getLogger(ProductExportServiceImplementation.class);
+
+  private static final String SELECT_PRODUCTS = "SELECT p.product_id, p.product_name, p.description, p.image, " +
+    "p.quantity, p.price, p.discount, p.spacial_price, c.category_id, c.category_name " +
+    "FROM products p LEFT JOIN categories c ON c.category_id = p.category_id ORDER BY p.product_id";
+
+  private static final String[] COLUMNS = {"productId", "productName", "description", "image", "quantity",
+    "price", "discount", "spacialPrice", "categoryId", "categoryName"};
+
+  private final JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  // a fetch size of Integer.MIN_VALUE puts the MySQL driver in streaming mode for this template only, so the export
+  // reads one row at a time while every other statement keeps the normal buffered result sets
+  public ProductExportServiceImplementation(DataSource dataSource, @Value("${project.product.export-fetch-size}") int fetchSize) {
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.jdbcTemplate.setFetchSize(fetchSize);
+  }
+
+  @Override
+  public String contentType(String format) {
+    return switch (format.toLowerCase(Locale.ROOT)) {
+      case "ndjson" -> "application/x-ndjson";
+      case "csv" -> "text/csv";
+      default -> throw new APIException("Unsupported export format " + format + ", use ndjson or csv");
+    };
+  }
+
+  @Override
+  public void exportProducts(OutputStream outputStream, String format) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    long[] rows = {0};
+
+    try {
+      if(contentType(format).equals("text/csv")){
+        CsvWriter csvWriter = new CsvWriter(writer);
+        csvWriter.writeRecord((Object[]) COLUMNS);
+        query(resultSet -> {
+          csvWriter.writeRecord(values(resultSet));
+          rows[0]++;
+        });
+      }
+      else {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+        query(resultSet -> {
+          Object[] values = values(resultSet);
+          generator.writeStartObject();
+          for (int i = 0; i < COLUMNS.length; i++) {
+            generator.writeObjectField(COLUMNS[i], values[i]);
+          }
+          generator.writeEndObject();
+          generator.writeRaw('\n');
+          rows[0]++;
+        });
+        generator.flush();
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    writer.flush();
+    logger.debug("Exported {} products as {}", rows[0], format);
+  }
+
+  private void query(ResultSetWriter rowWriter) {
+    jdbcTemplate.query(SELECT_PRODUCTS, (RowCallbackHandler) resultSet -> {
+      try {
+        rowWriter.write(resultSet);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  private static Object[] values(ResultSet resultSet) throws SQLException {
+    return new Object[]{
+      resultSet.getLong("product_id"),
+      resultSet.getString("product_name"),
+      resultSet.getString("description"),
+      resultSet.getString("image"),
+      resultSet.getObject("quantity", Integer.class),
+      resultSet.getDouble("price"),
+      resultSet.getDouble("discount"),
+      resultSet.getDouble("spacial_price"),
+      resultSet.getObject("category_id", Long.class),
+      resultSet.getString("category_name")
+    };
+  }
+
+  private interface ResultSetWriter {
+    void write(ResultSet resultSet) throws IOException, SQLException;
+  }
+}
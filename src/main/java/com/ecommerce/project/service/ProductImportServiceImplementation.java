@@ -0,0 +1,292 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.exception.APIException;
+import com.ecommerce.project.exception.ResourceNotFoundException;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.payload.ImportRowError;
+import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductImportResponse;
+import com.ecommerce.project.repository.CategoryRepository;
+import com.ecommerce.project.repository.ProductRepository;
+import com.ecommerce.project.search.IndexedProduct;
+import com.ecommerce.project.utils.CsvReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportServiceImplementation implements ProductImportService {
+  private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImplementation.class);
+
+  private static final String INSERT_PRODUCT = "INSERT INTO products " +
+    "(product_name, image, description, quantity, price, discount, spacial_price, category_id) " +
+    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private TransactionTemplate transactionTemplate;
+
+  @Autowired
+  private Validator validator;
+
+  @Autowired
+  private ProductMapper productMapper;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private List<ProductChangeListener> productChangeListeners;
+
+  @Value("${project.product.import-batch-size}")
+  private int batchSize;
+
+  @Value("${project.product.import-max-errors}")
+  private int maxErrors;
+
+  @Override
+  public ProductImportResponse importProducts(Long categoryId, InputStream inputStream, String format) throws IOException {
+    if(!categoryRepository.existsById(categoryId)){
+      throw new ResourceNotFoundException("Category", "CategoryId", categoryId);
+    }
+
+    BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    RowReader rows = switch (format.toLowerCase(Locale.ROOT)) {
+      case "ndjson" -> ndjsonRows(reader);
+      case "csv" -> csvRows(new CsvReader(reader));
+      default -> throw new APIException("Unsupported import format " + format + ", use ndjson or csv");
+    };
+
+    Set<String> productNames = new HashSet<>(productRepository.findProductNamesByCategoryId(categoryId));
+    ImportSummary summary = new ImportSummary();
+    List<Product> batch = new ArrayList<>(batchSize);
+    List<Long> batchLines = new ArrayList<>(batchSize);
+
+    ParsedRow row;
+    while ((row = rows.next()) != null) {
+      summary.totalRows++;
+
+      String error = row.error != null ? row.error : validate(row.product, productNames);
+      if(error != null){
+        summary.fail(row.line, error);
+        continue;
+      }
+
+      productNames.add(row.product.getProductName());
+      batch.add(row.product);
+      batchLines.add(row.line);
+
+      if(batch.size() >= batchSize){
+        flush(categoryId, batch, batchLines, productNames, summary);
+      }
+    }
+    flush(categoryId, batch, batchLines, productNames, summary);
+
+    logger.debug("Imported {} of {} products into category {}", summary.importedRows, summary.totalRows, categoryId);
+    return summary.toResponse();
+  }
+
+  private String validate(Product product, Set<String> productNames) {
+    Set<ConstraintViolation<Product>> violations = validator.validate(product);
+    if(!violations.isEmpty()){
+      return violations.stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining("; "));
+    }
+
+    if(productNames.contains(product.getProductName())){
+      return "Product with the name " + product.getProductName() + " already exists";
+    }
+    return null;
+  }
+
+  private void flush(Long categoryId, List<Product> batch, List<Long> batchLines, Set<String> productNames, ImportSummary summary) {
+    if(batch.isEmpty()){
+      return;
+    }
+
+    List<String> names = batch.stream().map(Product::getProductName).toList();
+    try {
+      transactionTemplate.executeWithoutResult(status ->
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT, batch, batch.size(), (statement, product) -> {
+          statement.setString(1, product.getProductName());
+          statement.setString(2, product.getImage());
+          statement.setString(3, product.getDescription());
+          statement.setObject(4, product.getQuantity());
+          statement.setDouble(5, product.getPrice());
+          statement.setDouble(6, product.getDiscount());
+          statement.setDouble(7, product.getSpacialPrice());
+          statement.setLong(8, categoryId);
+        }));
+      summary.importedRows += batch.size();
+    } catch (DataAccessException e) {
+      logger.warn("Product import batch starting on line {} failed", batchLines.get(0), e);
+      names.forEach(productNames::remove);
+      batchLines.forEach(line -> summary.fail(line, "Batch insert failed: " + e.getMostSpecificCause().getMessage()));
+      batch.clear();
+      batchLines.clear();
+      return;
+    }
+
+    List<IndexedProduct> imported = productRepository.findIndexedProductsByCategoryIdAndProductNameIn(categoryId, names);
+    imported.forEach(product -> productChangeListeners.forEach(listener -> listener.productSaved(product)));
+
+    batch.clear();
+    batchLines.clear();
+  }
+
+  private Product toProduct(ProductDTO productDTO) {
+    Product product = productMapper.toProduct(productDTO);
+    product.setProductId(null);
+    double spacialPrice = product.getPrice() - (product.getDiscount()*0.01) * product.getPrice();
+    product.setSpacialPrice(spacialPrice);
+    product.setImage("default.png");
+    return product;
+  }
+
+  private RowReader ndjsonRows(BufferedReader reader) {
+    long[] lineNumber = {0};
+    return () -> {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lineNumber[0]++;
+        if(line.isBlank()){
+          continue;
+        }
+        try {
+          ProductDTO productDTO = objectMapper.readValue(line, ProductDTO.class);
+          if(productDTO == null){
+            return new ParsedRow(lineNumber[0], null, "Expected a JSON object");
+          }
+          return new ParsedRow(lineNumber[0], toProduct(productDTO), null);
+        } catch (JsonProcessingException e) {
+          return new ParsedRow(lineNumber[0], null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+      }
+      return null;
+    };
+  }
+
+  private RowReader csvRows(CsvReader csvReader) throws IOException {
+    List<String> header;
+    try {
+      header = csvReader.readRecord();
+    } catch (CsvReader.MalformedCsvException e) {
+      throw new APIException("Malformed CSV header: " + e.getMessage());
+    }
+    Map<String, Integer> columns = new HashMap<>();
+    for (int i = 0; header != null && i < header.size(); i++) {
+      columns.put(header.get(i).trim(), i);
+    }
+
+    if(!columns.containsKey("productName")){
+      throw new APIException("CSV import needs a header row with at least a productName column");
+    }
+
+    // an unterminated quote swallows the rest of the file, so it becomes the last row's error and the import
+    // still returns its summary for everything read before it
+    return () -> {
+      List<String> record;
+      while (true) {
+        try {
+          record = csvReader.readRecord();
+        } catch (CsvReader.MalformedCsvException e) {
+          return new ParsedRow(csvReader.getRecordLineNumber(), null, e.getMessage());
+        }
+        if(record == null){
+          return null;
+        }
+        if(record.size() == 1 && record.get(0).isBlank()){
+          continue;
+        }
+
+        long line = csvReader.getRecordLineNumber();
+        try {
+          ProductDTO productDTO = new ProductDTO();
+          productDTO.setProductName(column(record, columns, "productName"));
+          productDTO.setDescription(column(record, columns, "description"));
+          String quantity = column(record, columns, "quantity");
+          productDTO.setQuantity(quantity == null ? null : Integer.valueOf(quantity));
+          productDTO.setPrice(number(column(record, columns, "price")));
+          productDTO.setDiscount(number(column(record, columns, "discount")));
+          return new ParsedRow(line, toProduct(productDTO), null);
+        } catch (NumberFormatException e) {
+          return new ParsedRow(line, null, "Invalid number: " + e.getMessage());
+        }
+      }
+    };
+  }
+
+  private static String column(List<String> record, Map<String, Integer> columns, String name) {
+    Integer index = columns.get(name);
+    if(index == null || index >= record.size() || record.get(index).isBlank()){
+      return null;
+    }
+    return record.get(index).trim();
+  }
+
+  private static double number(String value) {
+    return value == null ? 0 : Double.parseDouble(value);
+  }
+
+  private interface RowReader {
+    ParsedRow next() throws IOException;
+  }
+
+  private static class ParsedRow {
+    private final long line;
+    private final Product product;
+    private final String error;
+
+    ParsedRow(long line, Product product, String error) {
+      this.line = line;
+      this.product = product;
+      this.error = error;
+    }
+  }
+
+  private class ImportSummary {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    void fail(long line, String message) {
+      failedRows++;
+      if(errors.size() < maxErrors){
+        errors.add(new ImportRowError(line, message));
+      }
+    }
+
+    ProductImportResponse toResponse() {
+      return new ProductImportResponse(totalRows, importedRows, failedRows, errors, failedRows > errors.size());
+    }
+  }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.project.service;
 
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFacetResponse;
+import com.ecommerce.project.payload.ProductFilterRequest;
 import com.ecommerce.project.payload.ProductResponse;
+import com.ecommerce.project.payload.ProductSliceResponse;
+import com.ecommerce.project.payload.ProductSuggestionDTO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.List;
 
 public interface ProductService {
   ProductDTO addProduct(Long categoryID, ProductDTO productDTO);
@@ -13,9 +18,17 @@ public interface ProductService {
 
   ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
+  ProductSliceResponse getProductsAfter(String after, Integer pageSize, String sortBy, String sortOrder);
+
+  ProductSliceResponse searchByCategoryAfter(Long categoryId, String after, Integer pageSize, String sortBy, String sortOrder);
+
   ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder);
 
-  ProductDTO updateProduct(ProductDTO product, Long productId);
+  ProductFacetResponse filterProducts(ProductFilterRequest filterRequest);
+
+  List<ProductSuggestionDTO> suggestProducts(String prefix, Integer limit);
+
+  ProductDTO updateProduct(ProductDTO product, Long productId, boolean asyncReprice);
 
   ProductDTO deleteProduct(Long productId);
 
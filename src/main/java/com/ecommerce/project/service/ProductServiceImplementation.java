@@ -3,30 +3,52 @@ package com.ecommerce.project.service;
 import com.ecommerce.project.exception.APIException;
 import com.ecommerce.project.exception.EmptyReturnListException;
 import com.ecommerce.project.exception.ResourceNotFoundException;
-import com.ecommerce.project.model.Cart;
+import com.ecommerce.project.mapper.ProductMapper;
 import com.ecommerce.project.model.Category;
 import com.ecommerce.project.model.Product;
-import com.ecommerce.project.payload.CartDTO;
 import com.ecommerce.project.payload.ProductDTO;
+import com.ecommerce.project.payload.ProductFacetResponse;
+import com.ecommerce.project.payload.ProductFilterRequest;
 import com.ecommerce.project.payload.ProductResponse;
-import com.ecommerce.project.repository.CartRepository;
+import com.ecommerce.project.payload.ProductSliceResponse;
+import com.ecommerce.project.payload.ProductSuggestionDTO;
 import com.ecommerce.project.repository.CategoryRepository;
 import com.ecommerce.project.repository.ProductRepository;
-import org.modelmapper.ModelMapper;
+import com.ecommerce.project.search.CategoryProductIndex;
+import com.ecommerce.project.search.FacetResult;
+import com.ecommerce.project.search.IndexedProduct;
+import com.ecommerce.project.search.ProductFacetIndex;
+import com.ecommerce.project.search.ProductSearchIndex;
+import com.ecommerce.project.search.ProductSuggestionIndex;
+import com.ecommerce.project.utils.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductServiceImplementation implements ProductService {
+  private static final Map<String, Class<?>> SCROLLABLE_FIELDS = Map.of(
+    "productId", Long.class,
+    "productName", String.class,
+    "price", Double.class,
+    "discount", Double.class,
+    "spacialPrice", Double.class
+  );
+
   @Autowired
   private ProductRepository productRepository;
 
@@ -34,22 +56,37 @@ public class ProductServiceImplementation implements ProductService {
   private CategoryRepository categoryRepository;
 
   @Autowired
-  private ModelMapper modelMapper;
+  private ProductMapper productMapper;
 
   @Autowired
   private FileService fileService;
 
   @Autowired
-  private CartRepository cartRepository;
+  private CatalogDeletionService catalogDeletionService;
 
   @Autowired
   private CartService cartService;
 
+  @Autowired
+  private ProductSearchIndex productSearchIndex;
+
+  @Autowired
+  private CategoryProductIndex categoryProductIndex;
+
+  @Autowired
+  private ProductSuggestionIndex productSuggestionIndex;
+
+  @Autowired
+  private ProductFacetIndex productFacetIndex;
+
+  @Autowired
+  private List<ProductChangeListener> productChangeListeners;
+
   @Value("${project.image}")
   private String path;
   @Override
   public ProductDTO addProduct(Long categoryID, ProductDTO productDTO) {
-    Product product = modelMapper.map(productDTO, Product.class);
+    Product product = productMapper.toProduct(productDTO);
 
     Category category = categoryRepository.findById(categoryID)
       .orElseThrow(()->new ResourceNotFoundException("Category", "CategoryId", categoryID));
@@ -67,7 +104,8 @@ public class ProductServiceImplementation implements ProductService {
     product.setSpacialPrice(spacialPrice);
     product.setImage("default.png");
     Product savedProduct = productRepository.save(product);
-    return modelMapper.map(savedProduct, ProductDTO.class);
+    publishProductSaved(savedProduct);
+    return productMapper.toProductDTO(savedProduct);
   }
 
   @Override
@@ -79,62 +117,97 @@ public class ProductServiceImplementation implements ProductService {
 
     Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
 
-    Page<Product> productPage = productRepository.findAll(pageDetails);
+    Page<ProductDTO> productPage = productRepository.findAllProductDTOs(pageDetails);
 
-    List<Product> products = productPage.getContent();
-
-    if(products.isEmpty()){
+    if(productPage.isEmpty()){
       throw new EmptyReturnListException("Product List is Empty");
     }
 
-    return fileService.getAllResponse(products, productPage);
+    return fileService.getPageResponse(productPage);
   }
 
   @Override
   public ProductResponse searchByCategory(Long categoryId, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
-    Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-      ? Sort.by(sortBy).ascending()
-      : Sort.by(sortBy).descending();
-
-    Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
-
     Category category = categoryRepository.findById(categoryId)
       .orElseThrow(()->new ResourceNotFoundException("Category","categoryId",categoryId));
 
-    Page<Product> productPage = productRepository.findByCategoryOrderByPriceAsc(category, pageDetails);
-    List<Product> products = productPage.getContent();
+    Page<Long> productIdPage = categoryProductIndex.page(categoryId, sortBy, sortOrder.equalsIgnoreCase("asc"), pageNumber, pageSize);
+
+    Map<Long, ProductDTO> productsById = productRepository.findProductDTOsByProductIdIn(productIdPage.getContent()).stream()
+      .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+    // a product deleted between the index read and the query above is left out of the page
+    List<ProductDTO> content = productIdPage.getContent().stream()
+      .map(productsById::get)
+      .filter(Objects::nonNull)
+      .toList();
+    Page<ProductDTO> productPage = new PageImpl<>(content, productIdPage.getPageable(), productIdPage.getTotalElements());
 
-    if(products.isEmpty()){
+    if(productPage.isEmpty()){
       throw new APIException("Product List is Empty with " + category.getCategoryName() + " Category");
     }
 
-    return fileService.getAllResponse(products, productPage);
+    return fileService.getPageResponse(productPage);
   }
 
   @Override
-  public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
+  public ProductSliceResponse getProductsAfter(String after, Integer pageSize, String sortBy, String sortOrder) {
+    return scrollProducts(null, after, pageSize, sortBy, sortOrder);
+  }
 
-    Sort sortByAndOrder = sortOrder.equalsIgnoreCase("asc")
-      ? Sort.by(sortBy).ascending()
-      : Sort.by(sortBy).descending();
+  @Override
+  public ProductSliceResponse searchByCategoryAfter(Long categoryId, String after, Integer pageSize, String sortBy, String sortOrder) {
+    Category category = categoryRepository.findById(categoryId)
+      .orElseThrow(()->new ResourceNotFoundException("Category","categoryId",categoryId));
 
-    Pageable pageDetails = PageRequest.of(pageNumber, pageSize, sortByAndOrder);
+    return scrollProducts(category, after, pageSize, sortBy, sortOrder);
+  }
 
-    Page<Product> productPage = productRepository.findByProductNameLikeIgnoreCase('%'+ keyword +'%', pageDetails);
+  @Override
+  public ProductResponse searchProductByKeyword(String keyword, Integer pageNumber, Integer pageSize, String sortBy, String sortOrder) {
 
-    List<Product> products = productPage.getContent();
+    ProductResponse productResponse = productSearchIndex.search(keyword, pageNumber, pageSize);
 
-    if(products.isEmpty()){
-      throw new APIException("Product not Found with the keyWord: " + keyword);  //Concat the String
+    if(productResponse.getContent().isEmpty()){
+      throw new APIException("Product not Found with the keyWord: " + keyword, false);
     }
 
-    return fileService.getAllResponse(products, productPage);
+    return productResponse;
   }
 
   @Override
-  public ProductDTO updateProduct(ProductDTO productDTO, Long productId) {
-    Product product = modelMapper.map(productDTO,Product.class);
+  public ProductFacetResponse filterProducts(ProductFilterRequest filterRequest) {
+    if(filterRequest.getPageSize() < 1 || filterRequest.getPageNumber() < 0){
+      throw new APIException("Page size must be at least 1 and page number not negative");
+    }
+
+    FacetResult facetResult = productFacetIndex.filter(filterRequest);
+
+    Page<Long> productIdPage = facetResult.getProductIds();
+    Map<Long, ProductDTO> productsById = productRepository.findProductDTOsByProductIdIn(productIdPage.getContent()).stream()
+      .collect(Collectors.toMap(ProductDTO::getProductId, Function.identity()));
+    List<ProductDTO> content = productIdPage.getContent().stream()
+      .map(productsById::get)
+      .filter(Objects::nonNull)
+      .toList();
+
+    return new ProductFacetResponse(content, productIdPage.getNumber(), productIdPage.getSize(),
+      productIdPage.getTotalElements(), productIdPage.getTotalPages(), productIdPage.isLast(),
+      facetResult.getCategoryCounts(), facetResult.getPriceRangeCounts(), facetResult.getDiscountCounts(),
+      facetResult.getInStockCount());
+  }
+
+  @Override
+  public List<ProductSuggestionDTO> suggestProducts(String prefix, Integer limit) {
+    if(limit < 1){
+      throw new APIException("Limit must be at least 1");
+    }
+    return productSuggestionIndex.suggest(prefix, limit);
+  }
+
+  @Override
+  public ProductDTO updateProduct(ProductDTO productDTO, Long productId, boolean asyncReprice) {
+    Product product = productMapper.toProduct(productDTO);
     Product myProduct = productRepository.findById(productId).
       orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
 
@@ -146,37 +219,25 @@ public class ProductServiceImplementation implements ProductService {
     myProduct.setSpacialPrice(product.getSpacialPrice());
 
     Product savedProduct = productRepository.save(myProduct);
+    publishProductSaved(savedProduct);
 
-    List<Cart> carts = cartRepository.findCartsByProductId(productId);
-
-    List<CartDTO> cartDTOS = carts.stream().map(
-      cart -> {
-        CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
-
-        List<ProductDTO> productDTOS = cart.getCartItems().stream().map(
-          cartsItem -> modelMapper.map(cartsItem.getProduct(), ProductDTO.class)).toList();
-
-        cartDTO.setProducts(productDTOS);
-
-        return cartDTO;
-      }
-    ).toList();
-
-    cartDTOS.forEach(cartDTO -> cartService.updateProductInCarts(cartDTO.getCartId(), productId));
+    if(asyncReprice){
+      cartService.repriceProductInCartsAsync(productId, savedProduct.getSpacialPrice());
+    }
+    else {
+      cartService.repriceProductInCarts(productId, savedProduct.getSpacialPrice());
+    }
 
-    return modelMapper.map(savedProduct, ProductDTO.class);
+    return productMapper.toProductDTO(savedProduct);
   }
 
   @Override
   public ProductDTO deleteProduct(Long productId) {
-    Product product = productRepository.findById(productId)
+    ProductDTO productDTO = productRepository.findProductDTOById(productId)
       .orElseThrow(()->new ResourceNotFoundException("Product","productId",productId));
 
-    List<Cart> carts = cartRepository.findCartsByProductId(productId);
-    carts.forEach(cart -> cartService.deleteProductFromCart(cart.getCartId(), productId));
-
-    productRepository.delete(product);
-    return modelMapper.map(product, ProductDTO.class);
+    catalogDeletionService.deleteProducts(List.of(productId));
+    return productDTO;
   }
 
   @Override
@@ -189,7 +250,41 @@ public class ProductServiceImplementation implements ProductService {
     product.setImage(fileName);
 
     Product updatedProduct = productRepository.save(product);
+    publishProductSaved(updatedProduct);
+
+    return productMapper.toProductDTO(updatedProduct);
+  }
+
+  private ProductSliceResponse scrollProducts(Category category, String after, Integer pageSize, String sortBy, String sortOrder) {
+    if(pageSize < 1){
+      throw new APIException("Page size must be at least 1");
+    }
+
+    KeysetCursor cursor = after == null
+      ? KeysetCursor.first(sortBy, sortOrder, SCROLLABLE_FIELDS)
+      : KeysetCursor.decode(after, SCROLLABLE_FIELDS);
+
+    Specification<Product> specification = cursor.after("productId");
+    if(category != null){
+      specification = specification.and((root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("category"), category));
+    }
+
+    List<ProductDTO> products = productRepository.findProductDTOs(specification, cursor.sort("productId"), pageSize + 1);
+
+    if(products.isEmpty() && after == null){
+      throw new EmptyReturnListException("Product List is Empty");
+    }
+
+    boolean lastPage = products.size() <= pageSize;
+    List<ProductDTO> productDTOS = products.stream().limit(pageSize).toList();
+
+    String nextCursor = lastPage ? null : cursor.next(productDTOS.get(productDTOS.size() - 1), "productId");
+
+    return new ProductSliceResponse(productDTOS, pageSize, nextCursor, lastPage);
+  }
 
-    return modelMapper.map(updatedProduct, ProductDTO.class);
+  private void publishProductSaved(Product product) {
+    IndexedProduct indexedProduct = IndexedProduct.from(product);
+    productChangeListeners.forEach(listener -> listener.productSaved(indexedProduct));
   }
 }
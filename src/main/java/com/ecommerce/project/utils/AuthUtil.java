@@ -1,7 +1,9 @@
 package com.ecommerce.project.utils;
 
+import com.ecommerce.project.cache.UserCache;
 import com.ecommerce.project.model.Users;
 import com.ecommerce.project.repository.UserRepository;
+import com.ecommerce.project.security.services.UserDetailsImplementation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,29 +16,36 @@ public class AuthUtil {
   @Autowired
   UserRepository userRepository;
 
+  @Autowired
+  UserCache userCache;
 
-  public String loggedInEmail() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-
-    Users user = userRepository.findByUserName(authentication.getName())
-      .orElseThrow(()->new UsernameNotFoundException("User Not Found"));
 
-    return user.getEmail();
+  public String loggedInEmail() {
+    return loggedInPrincipal().getEmail();
   }
 
   public Long loggedInUserId() {
-    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return loggedInPrincipal().getId();
+  }
 
-    Users user = userRepository.findByUserName(authentication.getName())
-      .orElseThrow(()-> new UsernameNotFoundException("User Not Found"));
+  public Users loggedInUser() {
+    Long userId = loggedInUserId();
 
-    return user.getId();
+    return userCache.findById(userId)
+      .orElseThrow(()-> new UsernameNotFoundException("User Not Found"));
   }
 
-  public Users loggedInUser() {
+  // the JWT filter puts the id, email and roles from the token into the principal, so no query is needed
+  private UserDetailsImplementation loggedInPrincipal() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-    return userRepository.findByUserName(authentication.getName())
+    if(authentication.getPrincipal() instanceof UserDetailsImplementation userDetails){
+      return userDetails;
+    }
+
+    Users user = userRepository.findByUserName(authentication.getName())
       .orElseThrow(()-> new UsernameNotFoundException("User Not Found"));
+
+    return UserDetailsImplementation.build(user);
   }
 }
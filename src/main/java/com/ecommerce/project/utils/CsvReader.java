@@ -0,0 +1,99 @@
+package com.ecommerce.project.utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader {
+  private final Reader reader;
+  private int pushedBack = -2;
+  private long lineNumber = 1;
+  private long recordLineNumber;
+
+  public CsvReader(Reader reader) {
+    this.reader = reader;
+  }
+
+  // returns null at end of input; quoted fields may contain separators, doubled quotes and line breaks
+  public List<String> readRecord() throws IOException {
+    int c = read();
+    if(c == -1){
+      return null;
+    }
+
+    recordLineNumber = lineNumber;
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+
+    while (true) {
+      if(quoted){
+        if(c == -1){
+          throw new MalformedCsvException("Unterminated quoted field starting on line " + recordLineNumber);
+        }
+        if(c == '"'){
+          int next = read();
+          if(next == '"'){
+            field.append('"');
+          }
+          else {
+            quoted = false;
+            c = next;
+            continue;
+          }
+        }
+        else {
+          field.append((char) c);
+        }
+      }
+      else if(c == '"' && field.isEmpty()){
+        quoted = true;
+      }
+      else if(c == ','){
+        fields.add(field.toString());
+        field.setLength(0);
+      }
+      else if(c == '\r' || c == '\n' || c == -1){
+        if(c == '\r'){
+          int next = read();
+          if(next != '\n'){
+            pushedBack = next;
+          }
+        }
+        fields.add(field.toString());
+        return fields;
+      }
+      else {
+        field.append((char) c);
+      }
+      c = read();
+    }
+  }
+
+  public long getRecordLineNumber() {
+    return recordLineNumber;
+  }
+
+  // the input itself is broken, as opposed to the reader failing; whatever follows the error has been consumed
+  public static class MalformedCsvException extends IOException {
+    public MalformedCsvException(String message) {
+      super(message);
+    }
+  }
+
+  private int read() throws IOException {
+    int c;
+    if(pushedBack != -2){
+      c = pushedBack;
+      pushedBack = -2;
+    }
+    else {
+      c = reader.read();
+    }
+    if(c == '\n'){
+      lineNumber++;
+    }
+    return c;
+  }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.project.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+
+public class CsvWriter {
+  private final Writer writer;
+
+  public CsvWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  public void writeRecord(Object... values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if(i > 0){
+        writer.write(',');
+      }
+      writeField(values[i]);
+    }
+    writer.write('\n');
+  }
+
+  private void writeField(Object value) throws IOException {
+    if(value == null){
+      return;
+    }
+
+    String text = value.toString();
+    if(text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0){
+      writer.write(text);
+      return;
+    }
+
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.project.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+// hashed timing wheel: an id's deadline is rounded up to a tick and hashed into one of the buckets by that tick,
+// so schedule and cancel are O(1) and advancing only visits the buckets of the ticks that passed. Deadlines more
+// than one revolution away share a bucket with nearer ones and are skipped until their own tick comes round.
+// Not thread safe, callers synchronize
+public class HashedTimingWheel {
+  private final long tickMs;
+  private final Node[] buckets;
+  private final int mask;
+  private final Map<Long, Node> nodes = new HashMap<>();
+  private long currentTick;
+
+  public HashedTimingWheel(long tickMs, int wheelSize, long startMs) {
+    if(tickMs <= 0 || wheelSize <= 0){
+      throw new IllegalArgumentException("tick and wheel size must be positive");
+    }
+    int size = Integer.highestOneBit(wheelSize);
+    if(size < wheelSize){
+      size <<= 1;
+    }
+    this.tickMs = tickMs;
+    this.buckets = new Node[size];
+    this.mask = size - 1;
+    this.currentTick = startMs / tickMs;
+  }
+
+  // rescheduling an id replaces its previous deadline; deadlines already in the past fire on the next advance
+  public void schedule(long id, long deadlineMs) {
+    cancel(id);
+    Node node = new Node(id, Math.max(deadlineMs / tickMs + 1, currentTick));
+    nodes.put(id, node);
+    link(node);
+  }
+
+  public boolean cancel(long id) {
+    Node node = nodes.remove(id);
+    if(node == null){
+      return false;
+    }
+    unlink(node);
+    return true;
+  }
+
+  // hands every id whose tick is at or before nowMs to expired and forgets it; after a pause longer than a
+  // revolution each bucket is still visited only once
+  public void advance(long nowMs, LongConsumer expired) {
+    long targetTick = nowMs / tickMs;
+    if(targetTick < currentTick){
+      return;
+    }
+
+    long ticks = Math.min(targetTick - currentTick + 1, buckets.length);
+    for (long i = 0; i < ticks; i++) {
+      Node node = buckets[(int) ((currentTick + i) & mask)];
+      while (node != null) {
+        Node next = node.next;
+        if(node.deadlineTick <= targetTick){
+          unlink(node);
+          nodes.remove(node.id);
+          expired.accept(node.id);
+        }
+        node = next;
+      }
+    }
+    currentTick = targetTick + 1;
+  }
+
+  public int size() {
+    return nodes.size();
+  }
+
+  private void link(Node node) {
+    int bucket = (int) (node.deadlineTick & mask);
+    node.next = buckets[bucket];
+    if(node.next != null){
+      node.next.previous = node;
+    }
+    buckets[bucket] = node;
+  }
+
+  private void unlink(Node node) {
+    if(node.previous != null){
+      node.previous.next = node.next;
+    }
+    else {
+      buckets[(int) (node.deadlineTick & mask)] = node.next;
+    }
+    if(node.next != null){
+      node.next.previous = node.previous;
+    }
+    node.previous = null;
+    node.next = null;
+  }
+
+  private static final class Node {
+    private final long id;
+    private final long deadlineTick;
+    private Node previous;
+    private Node next;
+
+    Node(long id, long deadlineTick) {
+      this.id = id;
+      this.deadlineTick = deadlineTick;
+    }
+  }
+}
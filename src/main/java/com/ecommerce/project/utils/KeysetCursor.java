@@ -0,0 +1,96 @@
+package com.ecommerce.project.utils;
+
+import com.ecommerce.project.exception.APIException;
+import jakarta.persistence.criteria.Path;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+  private static final String SEPARATOR = "|";
+
+  private final String sortBy;
+  private final boolean ascending;
+  private final Comparable<?> lastValue;
+  private final Long lastId;
+
+  public static KeysetCursor first(String sortBy, String sortOrder, Map<String, Class<?>> sortableFields) {
+    if(!sortableFields.containsKey(sortBy)){
+      throw new APIException("Sorting by " + sortBy + " is not supported, use one of " + sortableFields.keySet());
+    }
+    return new KeysetCursor(sortBy, sortOrder.equalsIgnoreCase("asc"), null, null);
+  }
+
+  public static KeysetCursor decode(String token, Map<String, Class<?>> sortableFields) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      String[] parts = decoded.split("\\" + SEPARATOR, 4);
+
+      Class<?> type = sortableFields.get(parts[0]);
+      if(type == null){
+        throw new APIException("Invalid cursor: " + token);
+      }
+
+      return new KeysetCursor(parts[0], parts[1].equals("asc"), parseValue(type, parts[3]), Long.valueOf(parts[2]));
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+      throw new APIException("Invalid cursor: " + token);
+    }
+  }
+
+  public String next(Object lastRow, String idAttribute) {
+    BeanWrapperImpl row = new BeanWrapperImpl(lastRow);
+    String value = String.valueOf(row.getPropertyValue(sortBy));
+    String token = sortBy + SEPARATOR + (ascending ? "asc" : "desc") + SEPARATOR
+      + row.getPropertyValue(idAttribute) + SEPARATOR + value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public Sort sort(String idAttribute) {
+    Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+    return sortBy.equals(idAttribute)
+      ? Sort.by(direction, idAttribute)
+      : Sort.by(direction, sortBy).and(Sort.by(direction, idAttribute));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public <T> Specification<T> after(String idAttribute) {
+    return (root, query, criteriaBuilder) -> {
+      if(lastId == null){
+        return null;
+      }
+
+      Path<Comparable> idPath = root.get(idAttribute);
+      if(sortBy.equals(idAttribute)){
+        return ascending
+          ? criteriaBuilder.greaterThan(idPath, (Comparable) lastId)
+          : criteriaBuilder.lessThan(idPath, (Comparable) lastId);
+      }
+
+      Path<Comparable> sortPath = root.get(sortBy);
+      Comparable value = lastValue;
+      return ascending
+        ? criteriaBuilder.or(criteriaBuilder.greaterThan(sortPath, value),
+            criteriaBuilder.and(criteriaBuilder.equal(sortPath, value), criteriaBuilder.greaterThan(idPath, (Comparable) lastId)))
+        : criteriaBuilder.or(criteriaBuilder.lessThan(sortPath, value),
+            criteriaBuilder.and(criteriaBuilder.equal(sortPath, value), criteriaBuilder.lessThan(idPath, (Comparable) lastId)));
+    };
+  }
+
+  private static Comparable<?> parseValue(Class<?> type, String value) {
+    if(type == Long.class){
+      return Long.valueOf(value);
+    }
+    if(type == Double.class){
+      return Double.valueOf(value);
+    }
+    return value;
+  }
+}
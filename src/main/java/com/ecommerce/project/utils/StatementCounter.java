@@ -0,0 +1,30 @@
+package com.ecommerce.project.utils;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// counts the SQL statements Hibernate prepares on the current thread, so a unit of work can report how many
+// round trips it cost by reading current() before and after
+@Component
+public class StatementCounter implements StatementInspector, HibernatePropertiesCustomizer {
+  private static final ThreadLocal<long[]> STATEMENTS = ThreadLocal.withInitial(() -> new long[1]);
+
+  @Override
+  public String inspect(String sql) {
+    STATEMENTS.get()[0]++;
+    return sql;
+  }
+
+  @Override
+  public void customize(Map<String, Object> hibernateProperties) {
+    hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+  }
+
+  public long current() {
+    return STATEMENTS.get()[0];
+  }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.project.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// time per hash and per login check for each project.auth.bcrypt-strength; one core handles roughly
+// 1000 / (ms per op) logins a second, which is what project.auth.password-pool-size should be sized against
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BCryptBenchmark {
+  private static final String PASSWORD = "correct horse battery staple";
+
+  @Param({"8", "10", "12"})
+  private int strength;
+
+  private BCryptPasswordEncoder encoder;
+  private String encoded;
+
+  @Setup
+  public void setUp() {
+    encoder = new BCryptPasswordEncoder(strength);
+    encoded = encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public String encode() {
+    return encoder.encode(PASSWORD);
+  }
+
+  @Benchmark
+  public boolean matches() {
+    return encoder.matches(PASSWORD, encoded);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+      .include(BCryptBenchmark.class.getSimpleName())
+      .build();
+    new Runner(options).run();
+  }
+}
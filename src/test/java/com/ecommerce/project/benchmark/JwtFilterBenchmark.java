@@ -0,0 +1,135 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.security.jwt.AuthTokenFilter;
+import com.ecommerce.project.security.jwt.JwtUtils;
+import com.ecommerce.project.security.jwt.TokenRevocationList;
+import com.ecommerce.project.security.services.UserDetailsImplementation;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// cost of authenticating one request from the JWT cookie: the previous filter (key rebuilt and token parsed twice)
+// against the current filter with the verified-token cache cold and warm; run main() for throughput and allocation.
+// Each benchmark clears the security context itself, a per-invocation @TearDown would distort timings this short
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+  private static final String SECRET = "mysecret123mysecret123mysecret123mysecret123";
+  private static final String COOKIE = "shahnur123shahnur";
+
+  private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+  private AuthTokenFilter uncachedFilter;
+  private AuthTokenFilter cachedFilter;
+  private MockHttpServletRequest request;
+
+  @Setup
+  public void setUp() {
+    JwtUtils uncached = jwtUtils(0);
+    JwtUtils cached = jwtUtils(10000);
+
+    UserDetailsImplementation principal = new UserDetailsImplementation(1L, "user1", "user1@example.com", null,
+      List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    String token = cached.generateTokenFromUsername(principal);
+
+    TokenRevocationList revocationList = new TokenRevocationList();
+    ReflectionTestUtils.setField(revocationList, "expectedEntries", 10000);
+    revocationList.init();
+
+    uncachedFilter = filter(uncached, revocationList);
+    cachedFilter = filter(cached, revocationList);
+
+    request = new MockHttpServletRequest("GET", "/api/carts/user/cart");
+    request.setCookies(new Cookie(COOKIE, token));
+  }
+
+  @Benchmark
+  public void before() {
+    Cookie cookie = WebUtils.getCookie(request, COOKIE);
+    String token = cookie.getValue();
+
+    SecretKey validationKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    Jwts.parser().verifyWith(validationKey).build().parseSignedClaims(token);
+
+    SecretKey claimsKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    Claims claims = Jwts.parser().verifyWith(claimsKey).build().parseSignedClaims(token).getPayload();
+
+    List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+    List<GrantedAuthority> authorities = roles.stream()
+      .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role.toString()))
+      .toList();
+    UserDetailsImplementation userDetails = new UserDetailsImplementation(claims.get(JwtUtils.CLAIM_USER_ID, Long.class),
+      claims.getSubject(), claims.get(JwtUtils.CLAIM_EMAIL, String.class), null, authorities);
+
+    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails,
+      null, userDetails.getAuthorities());
+    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public void afterCacheMiss() throws ServletException, IOException {
+    uncachedFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+    SecurityContextHolder.clearContext();
+  }
+
+  @Benchmark
+  public void afterCacheHit() throws ServletException, IOException {
+    cachedFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+    SecurityContextHolder.clearContext();
+  }
+
+  private static JwtUtils jwtUtils(int verifiedCacheSize) {
+    JwtUtils jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+    ReflectionTestUtils.setField(jwtUtils, "jwtCookie", COOKIE);
+    ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", verifiedCacheSize);
+    jwtUtils.init();
+    return jwtUtils;
+  }
+
+  private static AuthTokenFilter filter(JwtUtils jwtUtils, TokenRevocationList revocationList) {
+    AuthTokenFilter filter = new AuthTokenFilter();
+    ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+    ReflectionTestUtils.setField(filter, "tokenRevocationList", revocationList);
+    return filter;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+      .include(JwtFilterBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.project.benchmark;
+
+import com.ecommerce.project.mapper.CartMapper;
+import com.ecommerce.project.mapper.OrderMapper;
+import com.ecommerce.project.mapper.ProductMapper;
+import com.ecommerce.project.model.*;
+import com.ecommerce.project.payload.CartDTO;
+import com.ecommerce.project.payload.OrderDTO;
+import com.ecommerce.project.payload.OrderItemDTO;
+import com.ecommerce.project.payload.ProductDTO;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// compares the reflective ModelMapper conversions the services used to do against the hand-written mappers;
+// run main() to get throughput together with gc.alloc.rate.norm (bytes allocated per operation)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+  @Param({"10"})
+  private int lines;
+
+  private ModelMapper modelMapper;
+  private ProductMapper productMapper;
+  private CartMapper cartMapper;
+  private OrderMapper orderMapper;
+
+  private Product product;
+  private Cart cart;
+  private Orders order;
+
+  @Setup
+  public void setUp() {
+    modelMapper = new ModelMapper();
+    productMapper = new ProductMapper();
+    cartMapper = new CartMapper(productMapper);
+    orderMapper = new OrderMapper(productMapper);
+
+    Category category = new Category(1L, "Electronics", null);
+    product = product(1L, category);
+
+    cart = new Cart();
+    cart.setCartId(1L);
+    order = new Orders();
+    order.setOrderId(1L);
+    order.setEmail("user@example.com");
+    order.setOrderDate(LocalDate.now());
+    order.setOrderStatus("Order Accepted !");
+    order.setPayment(new Payment(1, order, "card", "pg_1", "succeeded", "Payment successful", "Stripe"));
+
+    double total = 0;
+    for (long i = 1; i <= lines; i++) {
+      Product lineProduct = product(i, category);
+      cart.getCartItems().add(new CartItem(i, cart, lineProduct, 2, lineProduct.getDiscount(), lineProduct.getSpacialPrice(), null));
+      order.getOrderItems().add(new OrderItem(i, order, lineProduct, 2, lineProduct.getDiscount(), lineProduct.getSpacialPrice()));
+      total += 2 * lineProduct.getSpacialPrice();
+    }
+    cart.setTotalPrice(total);
+    order.setTotalAmount(total);
+  }
+
+  @Benchmark
+  public ProductDTO productModelMapper() {
+    return modelMapper.map(product, ProductDTO.class);
+  }
+
+  @Benchmark
+  public ProductDTO productHandWritten() {
+    return productMapper.toProductDTO(product);
+  }
+
+  @Benchmark
+  public CartDTO cartModelMapper() {
+    CartDTO cartDTO = modelMapper.map(cart, CartDTO.class);
+    List<ProductDTO> products = new ArrayList<>();
+    for (CartItem cartItem : cart.getCartItems()) {
+      ProductDTO productDTO = modelMapper.map(cartItem.getProduct(), ProductDTO.class);
+      productDTO.setQuantity(cartItem.getQuantity());
+      products.add(productDTO);
+    }
+    cartDTO.setProducts(products);
+    return cartDTO;
+  }
+
+  @Benchmark
+  public CartDTO cartHandWritten() {
+    return cartMapper.toCartDTO(cart);
+  }
+
+  @Benchmark
+  public OrderDTO orderModelMapper() {
+    OrderDTO orderDTO = modelMapper.map(order, OrderDTO.class);
+    List<OrderItemDTO> orderItems = new ArrayList<>();
+    order.getOrderItems().forEach(orderItem -> orderItems.add(modelMapper.map(orderItem, OrderItemDTO.class)));
+    orderDTO.setOrderItems(orderItems);
+    return orderDTO;
+  }
+
+  @Benchmark
+  public OrderDTO orderHandWritten() {
+    return orderMapper.toOrderDTO(order);
+  }
+
+  private static Product product(long productId, Category category) {
+    Product product = new Product();
+    product.setProductId(productId);
+    product.setProductName("Product " + productId);
+    product.setImage("default.png");
+    product.setDescription("Description of product " + productId);
+    product.setQuantity(100);
+    product.setPrice(250.0);
+    product.setDiscount(10.0);
+    product.setSpacialPrice(225.0);
+    product.setCategory(category);
+    return product;
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options = new OptionsBuilder()
+      .include(MapperBenchmark.class.getSimpleName())
+      .addProfiler(GCProfiler.class)
+      .build();
+    new Runner(options).run();
+  }
+}
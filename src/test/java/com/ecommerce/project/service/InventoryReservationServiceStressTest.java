@@ -0,0 +1,112 @@
+package com.ecommerce.project.service;
+
+import com.ecommerce.project.model.Product;
+import com.ecommerce.project.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// many buyers hammering the same product at once; the stock counter must end exactly where the successful
+// reservations put it and must never go below zero
+@SpringBootTest(properties = {
+  "spring.datasource.url=jdbc:h2:mem:reservations;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+  "spring.datasource.username=sa",
+  "spring.datasource.password=",
+  "spring.datasource.hikari.maximum-pool-size=32",
+  "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+  "spring.jpa.show-sql=false",
+  "logging.level.org.springframework=INFO",
+  "logging.level.org.hibernate.SQL=INFO",
+  "logging.level.com.ecommerce.project=INFO"
+})
+class InventoryReservationServiceStressTest {
+  private static final int THREADS = 64;
+  private static final int ATTEMPTS_PER_THREAD = 50;
+
+  @Autowired
+  private InventoryReservationService inventoryReservationService;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Test
+  void concurrentReservationsNeverOversell() throws Exception {
+    int stock = 500;
+    Long productId = saveProduct("Hot product", stock);
+    AtomicInteger reserved = new AtomicInteger();
+
+    runConcurrently(() -> {
+      if(inventoryReservationService.reserve(productId, 1)){
+        reserved.incrementAndGet();
+      }
+    });
+
+    assertEquals(stock, reserved.get());
+    assertEquals(0, quantityOf(productId));
+  }
+
+  @Test
+  void concurrentReservationsAndReleasesLoseNoUpdates() throws Exception {
+    int stock = 1000;
+    Long productId = saveProduct("Busy product", stock);
+    AtomicInteger held = new AtomicInteger();
+
+    runConcurrently(() -> {
+      if(inventoryReservationService.reserve(productId, 3)){
+        if(ThreadLocalRandom.current().nextBoolean()){
+          inventoryReservationService.release(productId, 3);
+        }
+        else {
+          held.addAndGet(3);
+        }
+      }
+    });
+
+    assertEquals(stock - held.get(), quantityOf(productId));
+  }
+
+  private void runConcurrently(Runnable attempt) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int j = 0; j < ATTEMPTS_PER_THREAD; j++) {
+            attempt.run();
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(2, TimeUnit.MINUTES);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Long saveProduct(String name, int quantity) {
+    Product product = new Product();
+    product.setProductName(name);
+    product.setDescription("Stress test product");
+    product.setImage("default.png");
+    product.setQuantity(quantity);
+    product.setPrice(100);
+    product.setSpacialPrice(100);
+    return productRepository.save(product).getProductId();
+  }
+
+  private int quantityOf(Long productId) {
+    return productRepository.findById(productId).orElseThrow().getQuantity();
+  }
+}